@@ -0,0 +1,77 @@
+package com.motorph.payroll.benchmark;
+
+import com.motorph.payroll.util.DataGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Employee and attendance CSV files of a chosen size, shared by the
+ * benchmarks. DataGenerator writes the files to a temporary directory once
+ * per trial with its default distributions, and they are deleted afterwards.
+ *
+ * The history ends on 12/31/2024, so the last pay period is
+ * 12/16/2024 - 12/31/2024.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkData {
+    private static final long SEED = 42;
+
+    @Param({"100", "1000"})
+    public int employees;
+
+    @Param({"1", "12"})
+    public int months;
+
+    private Path directory;
+    private DataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void writeFiles() throws IOException {
+        directory = Files.createTempDirectory("motorph-benchmark");
+        generator = new DataGenerator(employees, 0, SEED).setHistoryMonths(months);
+        generator.generate(directory.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public String getEmployeeFile() {
+        return directory.resolve(DataGenerator.EMPLOYEE_FILE_NAME).toString();
+    }
+
+    public String getAttendanceFile() {
+        return directory.resolve(DataGenerator.ATTENDANCE_FILE_NAME).toString();
+    }
+
+    /**
+     * Pick any employee in the files
+     * @param random The source of randomness
+     * @return An employee ID
+     */
+    public int randomEmployeeId(Random random) {
+        return DataGenerator.FIRST_EMPLOYEE_ID + random.nextInt(employees);
+    }
+
+    public LocalDate getPeriodStart() {
+        return generator.getHistoryEnd().withDayOfMonth(16);
+    }
+
+    public LocalDate getPeriodEnd() {
+        return generator.getHistoryEnd();
+    }
+}
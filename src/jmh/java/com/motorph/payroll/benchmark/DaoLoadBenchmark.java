@@ -0,0 +1,41 @@
+package com.motorph.payroll.benchmark;
+
+import com.motorph.payroll.dao.AttendanceDao;
+import com.motorph.payroll.dao.EmployeeDao;
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.dao.FileEmployeeDao;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to load the CSV files into the DAOs, without binary snapshots
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoLoadBenchmark {
+
+    @Benchmark
+    public AttendanceDao loadAttendance(BenchmarkData data) {
+        return new FileAttendanceDao(data.getAttendanceFile());
+    }
+
+    @Benchmark
+    public AttendanceDao loadAttendanceInParallel(BenchmarkData data) {
+        return new FileAttendanceDao(data.getAttendanceFile(), false, false,
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    @Benchmark
+    public EmployeeDao loadEmployees(BenchmarkData data) {
+        return new FileEmployeeDao(data.getEmployeeFile());
+    }
+}
@@ -0,0 +1,55 @@
+package com.motorph.payroll.benchmark;
+
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.dao.FileEmployeeDao;
+import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollSummary;
+import com.motorph.payroll.service.PayrollService;
+import com.motorph.payroll.service.PayrollServiceImpl;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The benchmark files loaded into DAOs and a payroll service, for the
+ * benchmarks that measure work on data already in memory
+ */
+@State(Scope.Benchmark)
+public class LoadedData {
+    public FileEmployeeDao employeeDao;
+    public FileAttendanceDao attendanceDao;
+    public PayrollService payrollService;
+    public List<Employee> employees;
+    // A payslip of the last pay period, and where to save it
+    public PayrollSummary payslip;
+    public String payslipFileName;
+    // Taxable income of every employee for the last pay period
+    public double[] taxableIncomes;
+
+    @Setup(Level.Trial)
+    public void load(BenchmarkData data) {
+        employeeDao = new FileEmployeeDao(data.getEmployeeFile());
+        attendanceDao = new FileAttendanceDao(data.getAttendanceFile());
+        payrollService = new PayrollServiceImpl(attendanceDao);
+        employees = employeeDao.getAllEmployees();
+        payslip = payrollService.calculatePayroll(employees.get(0), data.getPeriodStart(), data.getPeriodEnd());
+
+        List<PayrollSummary> summaries =
+            payrollService.calculateBatchPayroll(employees, data.getPeriodStart(), data.getPeriodEnd());
+        taxableIncomes = new double[summaries.size()];
+        for (int i = 0; i < taxableIncomes.length; i++) {
+            PayrollSummary summary = summaries.get(i);
+            taxableIncomes[i] = summary.getGrossPay()
+                - (summary.getSssDeduction() + summary.getPhilhealthDeduction() + summary.getPagibigDeduction());
+        }
+        
+        // savePayslipToFile resolves names against the working directory
+        Path payslipFile = Paths.get(data.getAttendanceFile()).resolveSibling("payslip.txt");
+        payslipFileName = Paths.get(System.getProperty("user.dir")).toAbsolutePath()
+            .relativize(payslipFile.toAbsolutePath()).toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.motorph.payroll.benchmark;
+
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.Employee;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups on loaded DAOs, for a random employee per call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Benchmark
+    public List<Attendance> getAttendanceByDateRange(BenchmarkData data, LoadedData loaded) {
+        int employeeId = data.randomEmployeeId(ThreadLocalRandom.current());
+        return loaded.attendanceDao.getAttendanceByDateRange(employeeId, data.getPeriodStart(), data.getPeriodEnd());
+    }
+
+    @Benchmark
+    public List<Attendance> getAttendanceByDateRangeForAllEmployees(BenchmarkData data, LoadedData loaded) {
+        return loaded.attendanceDao.getAttendanceByDateRange(data.getPeriodStart(), data.getPeriodEnd());
+    }
+
+    @Benchmark
+    public Employee getEmployeeById(BenchmarkData data, LoadedData loaded) {
+        return loaded.employeeDao.getEmployeeById(data.randomEmployeeId(ThreadLocalRandom.current()));
+    }
+}
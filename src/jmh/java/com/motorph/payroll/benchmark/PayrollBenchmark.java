@@ -0,0 +1,56 @@
+package com.motorph.payroll.benchmark;
+
+import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollSummary;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Payroll for the last pay period of the benchmark data
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollBenchmark {
+
+    @Benchmark
+    public PayrollSummary calculatePayroll(BenchmarkData data, LoadedData loaded) {
+        Employee employee = loaded.employees.get(ThreadLocalRandom.current().nextInt(loaded.employees.size()));
+        return loaded.payrollService.calculatePayroll(employee, data.getPeriodStart(), data.getPeriodEnd());
+    }
+
+    @Benchmark
+    public List<PayrollSummary> calculateBatchPayroll(BenchmarkData data, LoadedData loaded) {
+        return loaded.payrollService.calculateBatchPayroll(loaded.employees, data.getPeriodStart(),
+            data.getPeriodEnd());
+    }
+
+    @Benchmark
+    public double[] calculateWithholdingTaxPerEmployee(LoadedData loaded) {
+        double[] taxes = new double[loaded.taxableIncomes.length];
+        for (int i = 0; i < taxes.length; i++) {
+            taxes[i] = loaded.payrollService.calculateWithholdingTax(loaded.taxableIncomes[i]);
+        }
+        return taxes;
+    }
+
+    @Benchmark
+    public double[] calculateWithholdingTaxBatch(LoadedData loaded) {
+        return loaded.payrollService.calculateWithholdingTax(loaded.taxableIncomes);
+    }
+
+    @Benchmark
+    public boolean savePayslipToFile(LoadedData loaded) {
+        return loaded.payrollService.savePayslipToFile(loaded.payslip, loaded.payslipFileName);
+    }
+}
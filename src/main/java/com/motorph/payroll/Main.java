@@ -26,8 +26,11 @@ public class Main {
             e.printStackTrace();
         }
         
+        // Pick up edits other programs make to the data files while the app is open
+        DaoFactory.startFileWatcher(SwingUtilities::invokeLater);
+        
         // Create EmployeeController for login
-        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.createEmployeeDao());
+        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.getEmployeeDao());
         EmployeeController employeeController = new EmployeeController(employeeService);
         
         // Launch the GUI application
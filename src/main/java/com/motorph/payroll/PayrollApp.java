@@ -234,45 +234,19 @@ public class PayrollApp {
      * Generate payslip for an employee
      */
     private void generatePayslip() {
-        int empId = view.promptForInt("\nEnter Employee ID: ");
+        int empId = view.promptForInt("\nEnter Employee ID (0 for all employees): ");
+        
+        if (empId == 0) {
+            generateAllPayslips();
+            return;
+        }
         
         try {
             Employee employee = employeeController.getEmployeeById(empId);
             
-            // Allow user to specify pay period
-            view.displayMessage("\nSelect pay period:");
-            view.displayMessage("1. First Half (1-15)");
-            view.displayMessage("2. Second Half (16-30/31)");
-            view.displayMessage("3. Custom Date Range");
-            
-            int periodChoice = view.promptForInt("Enter your choice: ");
-            
-            LocalDate startDate, endDate;
-            
-            switch (periodChoice) {
-                case 1:
-                    startDate = DateTimeUtil.getFirstHalfStart();
-                    endDate = DateTimeUtil.getFirstHalfEnd();
-                    break;
-                case 2:
-                    startDate = DateTimeUtil.getSecondHalfStart();
-                    endDate = DateTimeUtil.getSecondHalfEnd();
-                    break;
-                case 3:
-                    startDate = view.promptForDate("Enter Start Date (MM/DD/YYYY): ");
-                    endDate = view.promptForDate("Enter End Date (MM/DD/YYYY): ");
-                    
-                    if (startDate == null || endDate == null) {
-                        view.displayMessage("Error parsing dates. Using current month.");
-                        startDate = DateTimeUtil.getFirstDayOfCurrentMonth();
-                        endDate = DateTimeUtil.getLastDayOfCurrentMonth();
-                    }
-                    break;
-                default:
-                    view.displayMessage("Invalid choice. Using current month.");
-                    startDate = DateTimeUtil.getFirstDayOfCurrentMonth();
-                    endDate = DateTimeUtil.getLastDayOfCurrentMonth();
-            }
+            LocalDate[] payPeriod = promptForPayPeriod();
+            LocalDate startDate = payPeriod[0];
+            LocalDate endDate = payPeriod[1];
             
             // Calculate payroll for the specified period
             PayrollSummary payrollSummary = payrollController.calculatePayroll(employee, startDate, endDate);
@@ -300,6 +274,86 @@ public class PayrollApp {
         }
     }
     
+    /**
+     * Generate and save payslips for every employee in one batch
+     */
+    private void generateAllPayslips() {
+        LocalDate[] payPeriod = promptForPayPeriod();
+        LocalDate startDate = payPeriod[0];
+        LocalDate endDate = payPeriod[1];
+        
+        List<Employee> employees = employeeController.getAllEmployees();
+        List<PayrollSummary> payrollSummaries = payrollController.calculateBatchPayroll(employees, startDate, endDate);
+        
+        int savedCount = 0;
+        int skippedCount = 0;
+        
+        for (PayrollSummary payrollSummary : payrollSummaries) {
+            // Skip employees with no attendance in the period
+            if (payrollSummary.getAttendanceRecords().isEmpty()) {
+                skippedCount++;
+                continue;
+            }
+            
+            String fileName = String.format(AppConstants.PAYSLIP_FILENAME_PATTERN, 
+                payrollSummary.getEmployee().getEmployeeId(),
+                startDate.format(DateTimeFormatter.ofPattern("MMddyyyy")),
+                endDate.format(DateTimeFormatter.ofPattern("MMddyyyy")));
+            
+            if (payrollController.savePayslipToFile(payrollSummary, fileName)) {
+                savedCount++;
+            } else {
+                view.displayMessage("Error saving payslip for Employee " + payrollSummary.getEmployee().getEmployeeId());
+            }
+        }
+        
+        view.displayMessage("\nPayslips saved: " + savedCount);
+        view.displayMessage("Employees without attendance for the period: " + skippedCount);
+    }
+    
+    /**
+     * Ask the user for a pay period
+     * @return The start and end dates of the selected period
+     */
+    private LocalDate[] promptForPayPeriod() {
+        // Allow user to specify pay period
+        view.displayMessage("\nSelect pay period:");
+        view.displayMessage("1. First Half (1-15)");
+        view.displayMessage("2. Second Half (16-30/31)");
+        view.displayMessage("3. Custom Date Range");
+        
+        int periodChoice = view.promptForInt("Enter your choice: ");
+        
+        LocalDate startDate, endDate;
+        
+        switch (periodChoice) {
+            case 1:
+                startDate = DateTimeUtil.getFirstHalfStart();
+                endDate = DateTimeUtil.getFirstHalfEnd();
+                break;
+            case 2:
+                startDate = DateTimeUtil.getSecondHalfStart();
+                endDate = DateTimeUtil.getSecondHalfEnd();
+                break;
+            case 3:
+                startDate = view.promptForDate("Enter Start Date (MM/DD/YYYY): ");
+                endDate = view.promptForDate("Enter End Date (MM/DD/YYYY): ");
+                
+                if (startDate == null || endDate == null) {
+                    view.displayMessage("Error parsing dates. Using current month.");
+                    startDate = DateTimeUtil.getFirstDayOfCurrentMonth();
+                    endDate = DateTimeUtil.getLastDayOfCurrentMonth();
+                }
+                break;
+            default:
+                view.displayMessage("Invalid choice. Using current month.");
+                startDate = DateTimeUtil.getFirstDayOfCurrentMonth();
+                endDate = DateTimeUtil.getLastDayOfCurrentMonth();
+        }
+        
+        return new LocalDate[] { startDate, endDate };
+    }
+    
     /**
      * View attendance records for an employee
      */
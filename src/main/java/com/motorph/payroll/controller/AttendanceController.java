@@ -56,4 +56,12 @@ public class AttendanceController {
     public boolean saveAttendance() {
         return attendanceService.saveAttendance();
     }
+    
+    public void requestSave() {
+        attendanceService.requestSave();
+    }
+    
+    public boolean flushSaves() {
+        return attendanceService.flushSaves();
+    }
 }
\ No newline at end of file
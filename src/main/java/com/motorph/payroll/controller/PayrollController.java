@@ -1,10 +1,14 @@
 package com.motorph.payroll.controller;
 
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollBatchResult;
 import com.motorph.payroll.model.PayrollSummary;
 import com.motorph.payroll.service.EmployeeService;
 import com.motorph.payroll.service.PayrollService;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 public class PayrollController {
     private PayrollService payrollService;
@@ -24,6 +28,23 @@ public class PayrollController {
         return payrollService.calculatePayroll(employee, startDate, endDate);
     }
     
+    public PayrollSummary calculatePayPeriodPreview(Employee employee, LocalDate date) {
+        return payrollService.calculatePayPeriodPreview(employee, date);
+    }
+    
+    public List<PayrollSummary> calculateBatchPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate) {
+        return payrollService.calculateBatchPayroll(employees, startDate, endDate);
+    }
+    
+    public PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate) {
+        return payrollService.calculateParallelPayroll(employees, startDate, endDate);
+    }
+    
+    public PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate,
+                                                       BooleanSupplier cancelled, IntConsumer progress) {
+        return payrollService.calculateParallelPayroll(employees, startDate, endDate, cancelled, progress);
+    }
+    
     public boolean savePayslipToFile(PayrollSummary payslip, String fileName) {
         return payrollService.savePayslipToFile(payslip, fileName);
     }
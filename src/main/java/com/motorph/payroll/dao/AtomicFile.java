@@ -0,0 +1,82 @@
+package com.motorph.payroll.dao;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replaces a data file as a whole, so readers and a crash part way through a
+ * save only ever leave the complete old or the complete new file.
+ *
+ * The new content is written to a temporary file in the same directory,
+ * forced to disk and then renamed over the target.
+ */
+class AtomicFile {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Makes temporary names unique within this process
+    private static final AtomicLong TEMP_COUNTER = new AtomicLong();
+
+    /**
+     * Writes the new content of a file
+     */
+    interface Content {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    private AtomicFile() {
+    }
+
+    /**
+     * Replace a text file with new content in the platform's default charset,
+     * as PrintWriter wrote it
+     * @param filePath The file to replace
+     * @param content Writes the new content
+     * @throws IOException If the content cannot be written; the file is left unchanged
+     */
+    static void write(String filePath, Content content) throws IOException {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + "."
+            + ProcessHandle.current().pid() + "-" + TEMP_COUNTER.incrementAndGet() + ".tmp");
+
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER_SIZE);
+                content.writeTo(writer);
+                writer.flush();
+                out.getFD().sync();
+            }
+            moveIntoPlace(temp, target);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The stray temporary file does no harm
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rename a finished temporary file over the target, atomically where the
+     * file system supports it
+     * @param temp The temporary file, in the target's directory
+     * @param target The file to replace
+     * @throws IOException If the file cannot be moved
+     */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
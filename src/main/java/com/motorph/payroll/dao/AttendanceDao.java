@@ -1,15 +1,35 @@
 package com.motorph.payroll.dao;
 
 import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 public interface AttendanceDao {
     List<Attendance> getAllAttendance();
     List<Attendance> getAttendanceByEmployeeId(int employeeId);
     List<Attendance> getAttendanceByDateRange(int employeeId, LocalDate startDate, LocalDate endDate);
+    List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate);
     void addAttendance(Attendance attendance);
     void updateAttendance(Attendance attendance);
     void deleteAttendance(int employeeId, LocalDate date);
     boolean saveAttendance();
+
+    /**
+     * Sum one employee's attendance over the semi-monthly pay period (1-15 or
+     * 16 to the end of the month) that contains a date
+     * @param employeeId The employee ID
+     * @param date Any day of the pay period
+     * @return The totals for the period, all zero if there are no records
+     */
+    AttendanceTotals getPayPeriodTotals(int employeeId, LocalDate date);
+
+    /**
+     * Get the cache of each employee's record for today that every attendance
+     * service over this DAO shares. The DAO replaces it with an empty one
+     * whenever it re-reads records from its files, so fetch it for each use.
+     * @return The cached records keyed by employee ID
+     */
+    ConcurrentMap<Integer, Attendance> getTodayRecordCache();
 }
\ No newline at end of file
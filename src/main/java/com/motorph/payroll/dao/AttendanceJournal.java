@@ -0,0 +1,226 @@
+package com.motorph.payroll.dao;
+
+import com.motorph.payroll.model.Attendance;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of attendance mutations kept next to the attendance CSV.
+ *
+ * Each entry is one line: an operation code followed by the record, e.g.
+ * {@code A,10001,06/03/2024,08:59,} for an add. Entries are buffered until
+ * {@link #flush()}, which appends them as a group and forces them to disk.
+ *
+ * The journal is safe for concurrent use. Entries recorded while a flush is
+ * writing to disk are kept for the next flush.
+ */
+class AttendanceJournal {
+    static final char ADD = 'A';
+    static final char UPDATE = 'U';
+    static final char DELETE = 'D';
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    /**
+     * Receives journal entries during replay
+     */
+    interface EntryHandler {
+        void apply(char operation, Attendance attendance);
+    }
+
+    private final File file;
+    // Guarded by this; flushLock keeps groups in the order they were taken
+    private List<String> pendingEntries = new ArrayList<>();
+    private int entryCount;
+    private final Object flushLock = new Object();
+
+    AttendanceJournal(String snapshotPath) {
+        this.file = new File(snapshotPath + ".journal");
+    }
+
+    synchronized void recordAdd(Attendance attendance) {
+        pendingEntries.add(formatEntry(ADD, attendance));
+    }
+
+    synchronized void recordUpdate(Attendance attendance) {
+        pendingEntries.add(formatEntry(UPDATE, attendance));
+    }
+
+    synchronized void recordDelete(int employeeId, LocalDate date) {
+        pendingEntries.add(DELETE + "," + employeeId + "," + date.format(DATE_FORMATTER) + ",,");
+    }
+
+    synchronized boolean hasPendingEntries() {
+        return !pendingEntries.isEmpty();
+    }
+
+    boolean hasEntriesOnDisk() {
+        return file.isFile() && file.length() > 0;
+    }
+
+    /**
+     * Get the number of entries written to the journal file
+     * @return The entry count since the journal was last truncated
+     */
+    synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Forget the entry count after the journal file was compacted elsewhere
+     */
+    synchronized void resetEntryCount() {
+        entryCount = 0;
+    }
+
+    /**
+     * Append all pending entries to the journal and sync them to disk
+     * @throws IOException If the journal cannot be written
+     */
+    void flush() throws IOException {
+        synchronized (flushLock) {
+            List<String> entries;
+            synchronized (this) {
+                if (pendingEntries.isEmpty()) {
+                    return;
+                }
+                // Take the pending entries so new ones can be recorded during the write
+                entries = pendingEntries;
+                pendingEntries = new ArrayList<>();
+            }
+
+            StringBuilder group = new StringBuilder(entries.size() * 32 + 1);
+            // A crash may have left a torn last line; the file is not cut back
+            // since another process may be reading or appending to it
+            if (hasEntriesOnDisk() && !endsWithNewline()) {
+                group.append('\n');
+            }
+            for (String entry : entries) {
+                group.append(entry).append('\n');
+            }
+
+            try (FileOutputStream out = new FileOutputStream(file, true)) {
+                out.write(group.toString().getBytes(StandardCharsets.UTF_8));
+                out.getFD().sync();
+            } catch (IOException e) {
+                // Keep the entries, ahead of any recorded since, for the next flush
+                synchronized (this) {
+                    pendingEntries.addAll(0, entries);
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                entryCount += entries.size();
+            }
+        }
+    }
+
+    /**
+     * Feed every complete entry in the journal file to a handler.
+     * A torn final line left by a crash mid-append is ignored; the next
+     * flush starts a new line after it rather than appending onto it.
+     * @param handler The handler that applies each entry
+     * @return The number of entries replayed
+     * @throws IOException If the journal cannot be read
+     */
+    int replay(EntryHandler handler) throws IOException {
+        if (!hasEntriesOnDisk()) {
+            return 0;
+        }
+
+        boolean tornTail = !endsWithNewline();
+        int replayed = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            // Hold back one line so a torn last line can be dropped
+            String pendingLine = reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                replayed += applyEntry(pendingLine, handler);
+                pendingLine = line;
+            }
+
+            if (pendingLine != null) {
+                if (tornTail) {
+                    System.err.println("Ignoring incomplete attendance journal entry: " + pendingLine);
+                } else {
+                    replayed += applyEntry(pendingLine, handler);
+                }
+            }
+        }
+
+        synchronized (this) {
+            entryCount = replayed;
+        }
+        return replayed;
+    }
+
+    /**
+     * Discard all journal entries once they are part of the snapshot
+     * @throws IOException If the journal cannot be truncated
+     */
+    synchronized void truncate() throws IOException {
+        if (file.exists()) {
+            try (FileOutputStream out = new FileOutputStream(file, false)) {
+                out.getFD().sync();
+            }
+        }
+        entryCount = 0;
+    }
+
+    private int applyEntry(String line, EntryHandler handler) {
+        if (line.trim().isEmpty()) {
+            return 0;
+        }
+
+        try {
+            String[] data = line.split(",", -1);
+            char operation = data[0].isEmpty() ? 0 : data[0].charAt(0);
+            int employeeId = Integer.parseInt(data[1].trim());
+            LocalDate date = LocalDate.parse(data[2].trim(), DATE_FORMATTER);
+            LocalTime timeIn = parseTime(data.length > 3 ? data[3] : "");
+            LocalTime timeOut = parseTime(data.length > 4 ? data[4] : "");
+
+            if (operation != ADD && operation != UPDATE && operation != DELETE) {
+                System.err.println("Unknown attendance journal operation: " + line);
+                return 0;
+            }
+
+            handler.apply(operation, new Attendance(employeeId, date, timeIn, timeOut));
+            return 1;
+        } catch (Exception e) {
+            System.err.println("Error replaying attendance journal entry '" + line + "': " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean endsWithNewline() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    private static String formatEntry(char operation, Attendance attendance) {
+        return operation + "," + attendance.getEmployeeId() + "," + attendance.getDate().format(DATE_FORMATTER) + ","
+            + (attendance.getTimeIn() != null ? attendance.getTimeIn().format(TIME_FORMATTER) : "") + ","
+            + (attendance.getTimeOut() != null ? attendance.getTimeOut().format(TIME_FORMATTER) : "");
+    }
+
+    private static LocalTime parseTime(String timeStr) {
+        String trimmed = timeStr.trim();
+        return trimmed.isEmpty() ? null : LocalTime.parse(trimmed, TIME_FORMATTER);
+    }
+}
@@ -0,0 +1,183 @@
+package com.motorph.payroll.dao;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary copy of the parsed contents of a CSV file, kept next to it as
+ * {@code <csv>.bin} so the file DAOs can load without parsing text.
+ *
+ * The file is a fixed-size header followed by a payload whose layout is up to
+ * the DAO. The header records the CSV's length, modification time and CRC32C
+ * when it was parsed, and a CRC32C of the payload. A snapshot is only used
+ * while the CSV still has that length and time and the payload checksum
+ * matches; otherwise the DAO parses the CSV and writes a new snapshot. The
+ * CSV's checksum lets the DAO track the file for refreshes without reading it.
+ *
+ * Header layout (big-endian):
+ * <pre>
+ * int   magic
+ * short format version
+ * short content type
+ * long  CSV length in bytes
+ * long  CSV modification time
+ * long  CSV CRC32C
+ * long  payload length in bytes
+ * long  payload CRC32C
+ * </pre>
+ */
+class BinarySnapshot {
+    static final short ATTENDANCE = 1;
+    static final short EMPLOYEES = 2;
+
+    private static final int MAGIC = 0x4D505353; // "MPSS"
+    private static final short FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 48;
+
+    private final Path snapshotPath;
+    private final short contentType;
+    private final boolean sourceExists;
+    private final long sourceLength;
+    private final long sourceModified;
+    private long sourceChecksum;
+
+    /**
+     * Create a snapshot for a CSV file. The CSV's current length and
+     * modification time are captured here, so create the snapshot before
+     * parsing the CSV.
+     * @param sourcePath The CSV file the snapshot mirrors
+     * @param contentType ATTENDANCE or EMPLOYEES
+     */
+    BinarySnapshot(String sourcePath, short contentType) {
+        File source = new File(sourcePath);
+        this.snapshotPath = new File(sourcePath + ".bin").toPath();
+        this.contentType = contentType;
+        this.sourceExists = source.isFile();
+        this.sourceLength = source.length();
+        this.sourceModified = source.lastModified();
+    }
+
+    /**
+     * Map the snapshot file and return its payload if it is still current
+     * @return The payload, or null if the snapshot is missing, stale or corrupt
+     */
+    ByteBuffer read() {
+        if (!sourceExists || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC
+                    || buffer.getShort() != FORMAT_VERSION
+                    || buffer.getShort() != contentType
+                    || buffer.getLong() != sourceLength
+                    || buffer.getLong() != sourceModified) {
+                return null;
+            }
+
+            long csvChecksum = buffer.getLong();
+            long payloadLength = buffer.getLong();
+            long checksum = buffer.getLong();
+            if (payloadLength != size - HEADER_SIZE) {
+                return null;
+            }
+
+            ByteBuffer payload = buffer.slice(HEADER_SIZE, (int) payloadLength);
+            if (checksum(payload) != checksum) {
+                System.err.println("Ignoring corrupt data snapshot: " + snapshotPath);
+                return null;
+            }
+            sourceChecksum = csvChecksum;
+            return payload;
+        } catch (IOException e) {
+            System.err.println("Error reading data snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the CSV's length when the snapshot was written
+     * @return The length in bytes
+     */
+    long getSourceLength() {
+        return sourceLength;
+    }
+
+    /**
+     * Get the CSV's modification time when the snapshot was written
+     * @return The time in milliseconds
+     */
+    long getSourceModified() {
+        return sourceModified;
+    }
+
+    /**
+     * Get the CRC32C of the CSV recorded in a snapshot that read() accepted
+     * @return The checksum
+     */
+    long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    /**
+     * Replace the snapshot file with a new payload. Failures are reported but
+     * not thrown, since the CSV remains the source of truth.
+     * @param payload The encoded records, from position 0 to the limit
+     * @param csvChecksum The CRC32C of the CSV content the payload was parsed from
+     * @return True if the snapshot was written
+     */
+    boolean write(ByteBuffer payload, long csvChecksum) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+              .putShort(FORMAT_VERSION)
+              .putShort(contentType)
+              .putLong(sourceLength)
+              .putLong(sourceModified)
+              .putLong(csvChecksum)
+              .putLong(payload.remaining())
+              .putLong(checksum(payload))
+              .flip();
+
+        Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer data = payload.duplicate();
+                while (header.hasRemaining() || data.hasRemaining()) {
+                    channel.write(new ByteBuffer[] { header, data });
+                }
+                channel.force(true);
+            }
+
+            AtomicFile.moveIntoPlace(tempPath, snapshotPath);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error writing data snapshot: " + e.getMessage());
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException ignored) {
+                // Nothing more to do; the next load rebuilds the snapshot
+            }
+            return false;
+        }
+    }
+
+    private static long checksum(ByteBuffer payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        return crc.getValue();
+    }
+}
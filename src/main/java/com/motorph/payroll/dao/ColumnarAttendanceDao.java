@@ -0,0 +1,560 @@
+package com.motorph.payroll.dao;
+
+import com.motorph.payroll.exception.DataAccessException;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.CsvWriter;
+import com.motorph.payroll.util.DateTimeUtil;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Attendance DAO that keeps records in parallel primitive arrays instead of
+ * Attendance objects, so years of history fit in a few bytes per punch.
+ *
+ * Rows are kept sorted by employee ID and then date, with one row per pair.
+ * Lookups are binary searches and period totals are plain loops over the
+ * arrays. Adding a record in the middle shifts the rows after it, so this
+ * store suits read-heavy use such as reporting and payroll runs. Records are
+ * saved back to the CSV in (employee, date) order.
+ *
+ * The store is safe for concurrent use: any number of lookups run together,
+ * and changes wait for them since an insert can move every later row.
+ *
+ * Entries in the CSV's journal, written by a journaled FileAttendanceDao and
+ * not yet compacted, are applied on load. Saving is refused while such
+ * entries exist, since replaying them later would undo parts of the save.
+ */
+public class ColumnarAttendanceDao implements AttendanceDao {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private String filePath;
+    // Row i is (employeeIds[i], epochDays[i], timeIns[i], timeOuts[i]);
+    // times are minutes since midnight or Attendance.NO_TIME
+    private int[] employeeIds = new int[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private short[] timeIns = new short[INITIAL_CAPACITY];
+    private short[] timeOuts = new short[INITIAL_CAPACITY];
+    private int size;
+    // Lookups share the read lock; changes and saves take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Today's record per employee for the services; the rows are never re-read
+    private final ConcurrentMap<Integer, Attendance> todayRecordCache = new ConcurrentHashMap<>();
+
+    public ColumnarAttendanceDao(String filePath) {
+        this.filePath = filePath;
+        loadAttendance();
+        sortAndDeduplicate();
+        replayJournal();
+    }
+
+    private void loadAttendance() {
+        File file = new File(filePath);
+
+        try (CsvReader csv = new CsvReader(new FileReader(file))) {
+            // Skip header line
+            csv.next();
+
+            while (csv.next()) {
+                int lineNumber = csv.getLineNumber();
+
+                try {
+                    // Check if we have the minimum required columns
+                    if (csv.getFieldCount() < 4) {
+                        System.err.println("Invalid attendance data at line " + lineNumber +
+                            ": expected at least 4 columns but found " + csv.getFieldCount());
+                        continue;
+                    }
+
+                    int employeeId = csv.getInt(0);
+                    int epochDay = FileAttendanceDao.readEpochDay(csv, 3);
+                    int timeIn = FileAttendanceDao.readMinuteOfDay(csv, 4);
+                    int timeOut = FileAttendanceDao.readMinuteOfDay(csv, 5);
+
+                    insertRow(size, employeeId, epochDay, timeIn, timeOut);
+                } catch (Exception e) {
+                    System.err.println("Error at line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+
+        } catch (FileNotFoundException e) {
+            throw new DataAccessException("Attendance data file not found: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new DataAccessException("Unexpected error reading attendance file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Attendance> getAllAttendance() {
+        lock.readLock().lock();
+        try {
+            return toList(0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Attendance> getAttendanceByEmployeeId(int employeeId) {
+        lock.readLock().lock();
+        try {
+            return toList(lowerBound(employeeId, Integer.MIN_VALUE), upperBound(employeeId, Integer.MAX_VALUE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Attendance> getAttendanceByDateRange(int employeeId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            if (startDate.isAfter(endDate)) {
+                return new ArrayList<>();
+            }
+            return toList(lowerBound(employeeId, (int) startDate.toEpochDay()),
+                          upperBound(employeeId, (int) endDate.toEpochDay()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            List<Attendance> result = new ArrayList<>();
+            int startDay = (int) startDate.toEpochDay();
+            int endDay = (int) endDate.toEpochDay();
+
+            // Records come back grouped by employee and sorted by date within each group
+            for (int i = 0; i < size; i++) {
+                int day = epochDays[i];
+                if (day >= startDay && day <= endDay) {
+                    result.add(toAttendance(i));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sum one employee's attendance over a period without creating records
+     * @param employeeId The employee ID
+     * @param startDate The first day of the period
+     * @param endDate The last day of the period
+     * @return The totals for the period
+     */
+    public AttendanceTotals getAttendanceTotals(int employeeId, LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            int from = lowerBound(employeeId, (int) startDate.toEpochDay());
+            int to = upperBound(employeeId, (int) endDate.toEpochDay());
+            return sumRows(employeeId, from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sum the attendance of every employee over a period in a single pass
+     * @param startDate The first day of the period
+     * @param endDate The last day of the period
+     * @return Totals for each employee with records in the period, by employee ID
+     */
+    public List<AttendanceTotals> getAttendanceTotals(LocalDate startDate, LocalDate endDate) {
+        lock.readLock().lock();
+        try {
+            List<AttendanceTotals> result = new ArrayList<>();
+            int startDay = (int) startDate.toEpochDay();
+            int endDay = (int) endDate.toEpochDay();
+            if (startDay > endDay) {
+                return result;
+            }
+
+            int i = 0;
+            while (i < size) {
+                int employeeId = employeeIds[i];
+                int from = lowerBound(employeeId, startDay);
+                int to = upperBound(employeeId, endDay);
+                if (from < to) {
+                    result.add(sumRows(employeeId, from, to));
+                }
+                // Jump to the first row of the next employee
+                i = upperBound(employeeId, Integer.MAX_VALUE);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public AttendanceTotals getPayPeriodTotals(int employeeId, LocalDate date) {
+        // A period is a couple of binary searches and at most 16 rows here
+        return getAttendanceTotals(employeeId, DateTimeUtil.getPayPeriodStart(date), DateTimeUtil.getPayPeriodEnd(date));
+    }
+
+    @Override
+    public ConcurrentMap<Integer, Attendance> getTodayRecordCache() {
+        return todayRecordCache;
+    }
+
+    /**
+     * Get the number of records held in memory
+     * @return The record count
+     */
+    public int getRecordCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAttendance(Attendance attendance) {
+        lock.writeLock().lock();
+        try {
+            int row = lowerBound(attendance.getEmployeeId(), attendance.getEpochDay());
+
+            // Replace any existing record for this employee and date
+            if (isRow(row, attendance.getEmployeeId(), attendance.getEpochDay())) {
+                timeIns[row] = (short) attendance.getTimeInMinute();
+                timeOuts[row] = (short) attendance.getTimeOutMinute();
+            } else {
+                insertRow(row, attendance.getEmployeeId(), attendance.getEpochDay(),
+                          attendance.getTimeInMinute(), attendance.getTimeOutMinute());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateAttendance(Attendance attendance) {
+        lock.writeLock().lock();
+        try {
+            int row = lowerBound(attendance.getEmployeeId(), attendance.getEpochDay());
+
+            if (!isRow(row, attendance.getEmployeeId(), attendance.getEpochDay())) {
+                throw new DataAccessException("Attendance record not found for update");
+            }
+
+            timeIns[row] = (short) attendance.getTimeInMinute();
+            timeOuts[row] = (short) attendance.getTimeOutMinute();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteAttendance(int employeeId, LocalDate date) {
+        lock.writeLock().lock();
+        try {
+            int epochDay = (int) date.toEpochDay();
+            int row = lowerBound(employeeId, epochDay);
+
+            if (!isRow(row, employeeId, epochDay)) {
+                throw new DataAccessException("Attendance record not found for deletion");
+            }
+
+            removeRow(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean saveAttendance() {
+        lock.writeLock().lock();
+        try {
+            if (new AttendanceJournal(filePath).hasEntriesOnDisk()) {
+                System.err.println("Attendance journal has entries not yet compacted; not overwriting " + filePath);
+                return false;
+            }
+            try {
+                // Readers of the file see the old or the new version, never part of one
+                AtomicFile.write(filePath, writer -> {
+                    CsvWriter csv = new CsvWriter(writer);
+
+                    // Write header
+                    csv.writeLine("Employee #,Last Name,First Name,Date,Time In,Time Out");
+
+                    // Write data; the name columns are left empty
+                    for (int i = 0; i < size; i++) {
+                        csv.writeInt(employeeIds[i])
+                           .writeEmpty()
+                           .writeEmpty()
+                           .writeDate(epochDays[i])
+                           .writeTime(timeIns[i])
+                           .writeTime(timeOuts[i])
+                           .endRow();
+                    }
+                    csv.flush();
+                });
+
+                System.out.println("Attendance data saved successfully to: " + filePath);
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error writing attendance data: " + e.getMessage());
+                return false;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Apply the entries of the CSV's journal, if any, over the loaded rows
+    private void replayJournal() {
+        try {
+            new AttendanceJournal(filePath).replay(this::applyJournalEntry);
+        } catch (IOException e) {
+            throw new DataAccessException("Error reading attendance journal: " + e.getMessage(), e);
+        }
+    }
+
+    // Apply a replayed entry the way FileAttendanceDao does: adds and updates
+    // store the record, and missing records are not an error
+    private void applyJournalEntry(char operation, Attendance attendance) {
+        int employeeId = attendance.getEmployeeId();
+        int epochDay = attendance.getEpochDay();
+        int row = lowerBound(employeeId, epochDay);
+        boolean exists = isRow(row, employeeId, epochDay);
+
+        if (operation == AttendanceJournal.DELETE) {
+            if (exists) {
+                removeRow(row);
+            }
+        } else if (exists) {
+            timeIns[row] = (short) attendance.getTimeInMinute();
+            timeOuts[row] = (short) attendance.getTimeOutMinute();
+        } else {
+            insertRow(row, employeeId, epochDay, attendance.getTimeInMinute(), attendance.getTimeOutMinute());
+        }
+    }
+
+    // Helper method to total the rows [from, to)
+    private AttendanceTotals sumRows(int employeeId, int from, int to) {
+        int daysPresent = 0;
+        int daysLate = 0;
+        long workedMinutes = 0;
+        long lateMinutes = 0;
+        long overtimeMinutes = 0;
+
+        for (int i = from; i < to; i++) {
+            int timeIn = timeIns[i];
+            int timeOut = timeOuts[i];
+            if (timeIn == Attendance.NO_TIME || timeOut == Attendance.NO_TIME) {
+                continue;
+            }
+
+            int late = Attendance.calculateLateMinutes(timeIn, timeOut);
+            daysPresent++;
+            if (late > 0) {
+                daysLate++;
+            }
+            workedMinutes += Attendance.calculateWorkedMinutes(timeIn, timeOut);
+            lateMinutes += late;
+            overtimeMinutes += Attendance.calculateOvertimeMinutes(timeIn, timeOut);
+        }
+
+        return new AttendanceTotals(employeeId, Math.max(to - from, 0), daysPresent, daysLate,
+            workedMinutes, lateMinutes, overtimeMinutes);
+    }
+
+    // Helper method to find the first row at or after (employeeId, epochDay)
+    private int lowerBound(int employeeId, int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (employeeIds[mid] < employeeId || (employeeIds[mid] == employeeId && epochDays[mid] < epochDay)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Helper method to find the first row after (employeeId, epochDay)
+    private int upperBound(int employeeId, int epochDay) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (employeeIds[mid] < employeeId || (employeeIds[mid] == employeeId && epochDays[mid] <= epochDay)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isRow(int row, int employeeId, int epochDay) {
+        return row < size && employeeIds[row] == employeeId && epochDays[row] == epochDay;
+    }
+
+    private void insertRow(int row, int employeeId, int epochDay, int timeIn, int timeOut) {
+        if (size == employeeIds.length) {
+            int capacity = size * 2;
+            employeeIds = Arrays.copyOf(employeeIds, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            timeIns = Arrays.copyOf(timeIns, capacity);
+            timeOuts = Arrays.copyOf(timeOuts, capacity);
+        }
+
+        int moved = size - row;
+        if (moved > 0) {
+            System.arraycopy(employeeIds, row, employeeIds, row + 1, moved);
+            System.arraycopy(epochDays, row, epochDays, row + 1, moved);
+            System.arraycopy(timeIns, row, timeIns, row + 1, moved);
+            System.arraycopy(timeOuts, row, timeOuts, row + 1, moved);
+        }
+
+        employeeIds[row] = employeeId;
+        epochDays[row] = epochDay;
+        timeIns[row] = (short) timeIn;
+        timeOuts[row] = (short) timeOut;
+        size++;
+    }
+
+    private void removeRow(int row) {
+        int moved = size - row - 1;
+        if (moved > 0) {
+            System.arraycopy(employeeIds, row + 1, employeeIds, row, moved);
+            System.arraycopy(epochDays, row + 1, epochDays, row, moved);
+            System.arraycopy(timeIns, row + 1, timeIns, row, moved);
+            System.arraycopy(timeOuts, row + 1, timeOuts, row, moved);
+        }
+        size--;
+    }
+
+    // Sort rows loaded in file order by (employee, date). When a pair appears
+    // more than once the row read last wins, as in FileAttendanceDao.
+    private void sortAndDeduplicate() {
+        long[] keys = new long[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            keys[i] = sortKey(employeeIds[i], epochDays[i]);
+            if (i > 0 && keys[i] <= keys[i - 1]) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return;
+        }
+
+        int[] order = sortedOrder(keys);
+
+        int capacity = Math.max(INITIAL_CAPACITY, size);
+        int[] sortedEmployeeIds = new int[capacity];
+        int[] sortedEpochDays = new int[capacity];
+        short[] sortedTimeIns = new short[capacity];
+        short[] sortedTimeOuts = new short[capacity];
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            int row = order[i];
+            if (i > 0 && keys[order[i - 1]] == keys[row]) {
+                // Overwrite the earlier duplicate
+                count--;
+            }
+            sortedEmployeeIds[count] = employeeIds[row];
+            sortedEpochDays[count] = epochDays[row];
+            sortedTimeIns[count] = timeIns[row];
+            sortedTimeOuts[count] = timeOuts[row];
+            count++;
+        }
+
+        employeeIds = sortedEmployeeIds;
+        epochDays = sortedEpochDays;
+        timeIns = sortedTimeIns;
+        timeOuts = sortedTimeOuts;
+        size = count;
+    }
+
+    // Order the rows by key, keeping duplicates in file order. Employee and
+    // day offsets from their minimums are packed with the row number into one
+    // long per row, so a primitive sort gives the order; if the ranges are too
+    // wide to pack, the row numbers are sorted stably by key instead.
+    private int[] sortedOrder(long[] keys) {
+        int minEmployeeId = Integer.MAX_VALUE;
+        int maxEmployeeId = Integer.MIN_VALUE;
+        int minEpochDay = Integer.MAX_VALUE;
+        int maxEpochDay = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            minEmployeeId = Math.min(minEmployeeId, employeeIds[i]);
+            maxEmployeeId = Math.max(maxEmployeeId, employeeIds[i]);
+            minEpochDay = Math.min(minEpochDay, epochDays[i]);
+            maxEpochDay = Math.max(maxEpochDay, epochDays[i]);
+        }
+
+        int rowBits = bitLength(size - 1);
+        int dayBits = bitLength((long) maxEpochDay - minEpochDay);
+        int employeeBits = bitLength((long) maxEmployeeId - minEmployeeId);
+        int[] order = new int[size];
+
+        if (employeeBits + dayBits + rowBits <= 63) {
+            long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                long employee = (long) employeeIds[i] - minEmployeeId;
+                long day = (long) epochDays[i] - minEpochDay;
+                packed[i] = (((employee << dayBits) | day) << rowBits) | i;
+            }
+            Arrays.sort(packed);
+
+            long rowMask = (1L << rowBits) - 1;
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) (packed[i] & rowMask);
+            }
+        } else {
+            Integer[] rows = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = i;
+            }
+            Arrays.sort(rows, Comparator.comparingLong(row -> keys[row]));
+            for (int i = 0; i < size; i++) {
+                order[i] = rows[i];
+            }
+        }
+        return order;
+    }
+
+    // Helper method to count the bits needed for a non-negative value
+    private static int bitLength(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    // Helper method to build a key that orders rows by employee and then date
+    private static long sortKey(int employeeId, int epochDay) {
+        return ((long) employeeId << 32) | ((epochDay ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    private List<Attendance> toList(int from, int to) {
+        List<Attendance> result = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            result.add(toAttendance(i));
+        }
+        return result;
+    }
+
+    private Attendance toAttendance(int row) {
+        return Attendance.ofMinutes(employeeIds[row], epochDays[row], timeIns[row], timeOuts[row]);
+    }
+}
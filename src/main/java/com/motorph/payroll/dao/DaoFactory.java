@@ -1,22 +1,242 @@
 package com.motorph.payroll.dao;
 
+import com.motorph.payroll.exception.DataAccessException;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
+/**
+ * Hands out one shared DAO per data file, so every screen and service works
+ * on the same records and each CSV is read once per session.
+ *
+ * DAOs are created on first use. reload() re-reads the files into the
+ * existing instances and close() folds the attendance journal into the CSV
+ * and forgets the instances; close() also runs when the JVM exits. Code that
+ * still changes records, such as a server, registers addCloseListener() so it
+ * is stopped first rather than adding a shutdown hook of its own.
+ *
+ * startFileWatcher() keeps the shared DAOs in step with edits other programs
+ * make to employees.csv and attendance.csv, and tells registered listeners.
+ *
+ * getAttendanceSaveScheduler() groups attendance saves requested in quick
+ * succession, such as clock-ins, into one background write. Its window is
+ * set with the system property motorph.attendance.saveWindowMillis.
+ */
 public class DaoFactory {
     private static final String PROJECT_PATH = System.getProperty("user.dir");
-    
-    public static EmployeeDao createEmployeeDao() {
-        String filePath = PROJECT_PATH + File.separator + "employees.csv";
-        return new FileEmployeeDao(filePath);
+    private static final String EMPLOYEE_FILE = "employees.csv";
+    private static final String ATTENDANCE_FILE = "attendance.csv";
+    private static final String USER_FILE = "user.csv";
+    private static final long ATTENDANCE_SAVE_WINDOW_MILLIS =
+        Long.getLong("motorph.attendance.saveWindowMillis", 500);
+    // Threads used to parse a large attendance CSV, e.g. the core count on a
+    // server holding years of records; 1 reads it sequentially
+    private static final int ATTENDANCE_LOAD_PARALLELISM =
+        Integer.getInteger("motorph.attendance.loadParallelism", 1);
+
+    private static FileEmployeeDao employeeDao;
+    private static FileAttendanceDao attendanceDao;
+    private static FileUserDao userDao;
+    private static PersistenceScheduler attendanceSaveScheduler;
+    private static boolean shutdownHookRegistered;
+
+    private static DataFileWatcher fileWatcher;
+    private static final List<Runnable> employeeChangeListeners = new CopyOnWriteArrayList<>();
+    private static final List<Runnable> attendanceChangeListeners = new CopyOnWriteArrayList<>();
+    private static final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    public static synchronized EmployeeDao getEmployeeDao() {
+        if (employeeDao == null) {
+            String filePath = PROJECT_PATH + File.separator + EMPLOYEE_FILE;
+            // Load from the binary snapshot next to the CSV while it is current
+            employeeDao = new FileEmployeeDao(filePath, true);
+        }
+        return employeeDao;
     }
-    
-    public static AttendanceDao createAttendanceDao() {
-        String filePath = PROJECT_PATH + File.separator + "attendance.csv";
-        return new FileAttendanceDao(filePath);
+
+    public static synchronized AttendanceDao getAttendanceDao() {
+        if (attendanceDao == null) {
+            String filePath = PROJECT_PATH + File.separator + ATTENDANCE_FILE;
+            // Clock-ins and clock-outs are saved by appending to a journal, and
+            // loads use the binary snapshot next to the CSV while it is current
+            attendanceDao = new FileAttendanceDao(filePath, true, true, ATTENDANCE_LOAD_PARALLELISM);
+            registerShutdownHook();
+        }
+        return attendanceDao;
+    }
+
+    public static synchronized UserDao getUserDao() {
+        if (userDao == null) {
+            String filePath = PROJECT_PATH + File.separator + USER_FILE;
+            userDao = new FileUserDao(filePath);
+        }
+        return userDao;
+    }
+
+    /**
+     * Get the scheduler that saves the shared attendance DAO in the background
+     * @return The scheduler, created on first use
+     */
+    public static synchronized PersistenceScheduler getAttendanceSaveScheduler() {
+        if (attendanceSaveScheduler == null) {
+            AttendanceDao dao = getAttendanceDao();
+            attendanceSaveScheduler = new PersistenceScheduler("attendance", dao::saveAttendance,
+                ATTENDANCE_SAVE_WINDOW_MILLIS);
+        }
+        return attendanceSaveScheduler;
+    }
+
+    public static ColumnarAttendanceDao createColumnarAttendanceDao() {
+        String filePath = PROJECT_PATH + File.separator + ATTENDANCE_FILE;
+        // Read-mostly store for reports over long attendance histories; not shared
+        return new ColumnarAttendanceDao(filePath);
+    }
+
+    /**
+     * Re-read every shared DAO from its file. Unsaved changes are discarded,
+     * apart from attendance saves already requested from the scheduler.
+     */
+    public static synchronized void reload() {
+        if (attendanceSaveScheduler != null) {
+            attendanceSaveScheduler.flush();
+        }
+        if (employeeDao != null) {
+            employeeDao.reload();
+        }
+        if (attendanceDao != null) {
+            attendanceDao.reload();
+        }
+        if (userDao != null) {
+            userDao.reload();
+        }
+    }
+
+    /**
+     * Fold saved attendance changes into the CSV and release the shared DAOs.
+     * The next get call loads a fresh instance. Close listeners run first.
+     */
+    public static void close() {
+        // Outside the lock, since listeners may wait for work that uses the DAOs
+        for (Runnable listener : closeListeners) {
+            if (closeListeners.remove(listener)) {
+                listener.run();
+            }
+        }
+        
+        synchronized (DaoFactory.class) {
+            stopFileWatcher();
+            if (attendanceSaveScheduler != null) {
+                // Write requested saves before the journal is folded into the CSV
+                attendanceSaveScheduler.close();
+                attendanceSaveScheduler = null;
+            }
+            if (attendanceDao != null) {
+                attendanceDao.close();
+            }
+            employeeDao = null;
+            attendanceDao = null;
+            userDao = null;
+        }
     }
     
-    public static UserDao createUserDao() {
-        String filePath = PROJECT_PATH + File.separator + "user.csv";
-        return new FileUserDao(filePath);
+    /**
+     * Run a task once, at the start of the next close() and so also when the
+     * JVM exits, before attendance saves are written and the journal folded
+     * @param listener Stops whatever still changes records through the shared DAOs
+     */
+    public static void addCloseListener(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * Start watching the employee and attendance files for edits made by other
+     * programs. Appended rows are read on their own; other edits reload the file.
+     * @param executor Runs the refresh and the change listeners, for example
+     *        SwingUtilities::invokeLater so they run on the event dispatch thread
+     */
+    public static synchronized void startFileWatcher(Executor executor) {
+        if (fileWatcher != null) {
+            return;
+        }
+
+        DataFileWatcher watcher = new DataFileWatcher(Paths.get(PROJECT_PATH), executor);
+        watcher.watch(EMPLOYEE_FILE, DaoFactory::refreshEmployees);
+        watcher.watch(ATTENDANCE_FILE, DaoFactory::refreshAttendance);
+        try {
+            watcher.start();
+            fileWatcher = watcher;
+        } catch (IOException e) {
+            System.err.println("Could not watch data files for changes: " + e.getMessage());
+        }
+    }
+
+    public static synchronized void stopFileWatcher() {
+        if (fileWatcher != null) {
+            fileWatcher.stop();
+            fileWatcher = null;
+        }
+    }
+
+    public static void addEmployeeChangeListener(Runnable listener) {
+        employeeChangeListeners.add(listener);
+    }
+
+    public static void removeEmployeeChangeListener(Runnable listener) {
+        employeeChangeListeners.remove(listener);
+    }
+
+    public static void addAttendanceChangeListener(Runnable listener) {
+        attendanceChangeListeners.add(listener);
+    }
+
+    public static void removeAttendanceChangeListener(Runnable listener) {
+        attendanceChangeListeners.remove(listener);
+    }
+
+    private static void refreshEmployees() {
+        boolean changed;
+        synchronized (DaoFactory.class) {
+            changed = employeeDao != null && refresh(employeeDao::refresh, EMPLOYEE_FILE);
+        }
+        if (changed) {
+            employeeChangeListeners.forEach(Runnable::run);
+        }
+    }
+
+    private static void refreshAttendance() {
+        boolean changed;
+        synchronized (DaoFactory.class) {
+            // Punches still waiting for the save window go to the journal
+            // first, so a reload after a rewrite replays them, as in reload()
+            if (attendanceSaveScheduler != null) {
+                attendanceSaveScheduler.flush();
+            }
+            changed = attendanceDao != null && refresh(attendanceDao::refresh, ATTENDANCE_FILE);
+        }
+        if (changed) {
+            attendanceChangeListeners.forEach(Runnable::run);
+        }
+    }
+
+    // Helper method to run a DAO refresh without letting a bad file stop the watcher
+    private static boolean refresh(BooleanSupplier refresh, String fileName) {
+        try {
+            return refresh.getAsBoolean();
+        } catch (DataAccessException e) {
+            System.err.println("Error reloading " + fileName + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Make sure the journal is compacted even if the application exits without calling close()
+    private static void registerShutdownHook() {
+        if (!shutdownHookRegistered) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DaoFactory::close, "dao-close"));
+            shutdownHookRegistered = true;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.motorph.payroll.dao;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Watches the data directory on a daemon thread and runs a handler when one
+ * of the registered files is created or modified.
+ *
+ * A single save by another program usually produces several events, so after
+ * the first event the watcher waits briefly and handles each file once for the
+ * whole burst. Handlers run on the executor given at construction.
+ */
+class DataFileWatcher {
+    // How long to let a writer finish before handling its events
+    private static final long SETTLE_MILLIS = 250;
+
+    private final Path directory;
+    private final Executor executor;
+    private final Map<Path, Runnable> handlers = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    DataFileWatcher(Path directory, Executor executor) {
+        this.directory = directory;
+        this.executor = executor;
+    }
+
+    void watch(String fileName, Runnable onChange) {
+        handlers.put(Paths.get(fileName), onChange);
+    }
+
+    synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "data-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    synchronized void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            // Wakes the watcher thread with ClosedWatchServiceException
+            watchService.close();
+        } catch (IOException e) {
+            System.err.println("Error stopping data file watcher: " + e.getMessage());
+        }
+        thread = null;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                collect(watchService.take(), changed);
+
+                Thread.sleep(SETTLE_MILLIS);
+                WatchKey key;
+                while ((key = watchService.poll()) != null) {
+                    collect(key, changed);
+                }
+
+                for (Path fileName : changed) {
+                    Runnable handler = handlers.get(fileName);
+                    if (handler != null) {
+                        executor.execute(handler);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so check every file
+                changed.addAll(handlers.keySet());
+            } else {
+                changed.add((Path) event.context());
+            }
+        }
+        key.reset();
+    }
+}
@@ -2,233 +2,924 @@ package com.motorph.payroll.dao;
 
 import com.motorph.payroll.exception.DataAccessException;
 import com.motorph.payroll.model.Attendance;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import com.motorph.payroll.model.AttendanceTotals;
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.CsvWriter;
+import com.motorph.payroll.util.DateTimeUtil;
+import com.motorph.payroll.util.MetricsRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * Attendance DAO backed by a CSV file, optionally with a journal and a
+ * binary snapshot next to it.
+ *
+ * The DAO is safe for concurrent use. Lookups read the per-employee index,
+ * which is built from concurrent maps, without taking any lock, so they never
+ * wait for a clock-in. A change to a record locks only its employee's stripe.
+ * Reloads, refreshes, compactions and full saves take the file lock
+ * exclusively, which pauses writers but not readers.
+ *
+ * Every change to a record also updates each employee's running totals for
+ * the current semi-monthly pay period, so a preview of the period's payslip
+ * reads them without going through the period's records.
+ */
 public class FileAttendanceDao implements AttendanceDao {
     private String filePath;
-    private List<Attendance> attendanceRecords;
+    // All records keyed by (employee, date), in file/insertion order for saving; guarded by orderLock
+    private volatile Map<Long, Attendance> attendanceRecords;
+    // Per-employee index of records sorted by epoch day, used for range lookups
+    private volatile ConcurrentMap<Integer, ConcurrentNavigableMap<Integer, Attendance>> employeeIndex;
+    // Totals of the pay period containing today, kept in step with the index
+    private volatile PayPeriodAccumulator periodTotals;
+    // Today's record per employee for the services; replaced when records are re-read
+    private volatile ConcurrentMap<Integer, Attendance> todayRecordCache = new ConcurrentHashMap<>();
+    
+    // Writers to the same employee share a stripe; writers hold fileLock shared
+    private static final int LOCK_STRIPES = 32;
+    private final ReentrantLock[] employeeLocks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantReadWriteLock fileLock = new ReentrantReadWriteLock();
+    private final ReentrantReadWriteLock orderLock = new ReentrantReadWriteLock();
+    
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    
+    // Compact the journal into the CSV once it holds this many entries
+    private static final int JOURNAL_COMPACTION_THRESHOLD = 5000;
+    // Compactions rewrite shared files, so only one may run at a time
+    private static final Object COMPACTION_LOCK = new Object();
+    
+    // Bytes per record in the binary snapshot: employee ID, epoch day, time in, time out
+    private static final int SNAPSHOT_RECORD_SIZE = 12;
+    
+    // Smaller CSVs are parsed on one thread even when a parallel load is allowed
+    private static final long PARALLEL_LOAD_MIN_BYTES = 4L * 1024 * 1024;
+    // Bounds on the chunks a parallel load splits the CSV into
+    private static final long MIN_LOAD_CHUNK_BYTES = 1024 * 1024;
+    private static final long MAX_LOAD_CHUNK_BYTES = 16L * 1024 * 1024;
+    
+    private static final MetricsRegistry.Timer LOAD_TIMER = MetricsRegistry.getDefault().timer("attendance.load");
+    private static final MetricsRegistry.Timer SAVE_TIMER = MetricsRegistry.getDefault().timer("attendance.save");
+    private static final MetricsRegistry.Timer EMPLOYEE_RANGE_TIMER =
+        MetricsRegistry.getDefault().timer("attendance.dateRange.employee");
+    private static final MetricsRegistry.Timer ALL_RANGE_TIMER =
+        MetricsRegistry.getDefault().timer("attendance.dateRange.all");
+    private static final MetricsRegistry.Histogram ALL_RANGE_RECORDS =
+        MetricsRegistry.getDefault().histogram("attendance.dateRange.all.records");
+    
+    // Journal of unsnapshotted changes, or null when saves rewrite the whole file
+    private volatile AttendanceJournal journal;
+    private boolean snapshotEnabled;
+    // Threads used to parse a large CSV; 1 reads it sequentially
+    private final int loadParallelism;
+    // What has been read of the CSV, to tell appended rows from other edits; guarded by fileLock
+    private TrackedFile csvFile;
     
     public FileAttendanceDao(String filePath) {
+        this(filePath, false);
+    }
+    
+    public FileAttendanceDao(String filePath, boolean journalEnabled) {
+        this(filePath, journalEnabled, false);
+    }
+    
+    /**
+     * Create an attendance DAO backed by a CSV file
+     * @param filePath The attendance CSV file
+     * @param journalEnabled True to save changes by appending to a journal
+     *        next to the CSV instead of rewriting the whole file
+     * @param snapshotEnabled True to load from a binary snapshot of the CSV
+     *        when it is current, and to write one after parsing the CSV
+     */
+    public FileAttendanceDao(String filePath, boolean journalEnabled, boolean snapshotEnabled) {
+        this(filePath, journalEnabled, snapshotEnabled, 1);
+    }
+    
+    /**
+     * Create an attendance DAO backed by a CSV file
+     * @param filePath The attendance CSV file
+     * @param journalEnabled True to save changes by appending to a journal
+     *        next to the CSV instead of rewriting the whole file
+     * @param snapshotEnabled True to load from a binary snapshot of the CSV
+     *        when it is current, and to write one after parsing the CSV
+     * @param loadParallelism The number of threads used to parse a large CSV.
+     *        Above 1, the file is memory-mapped and parsed in chunks. On
+     *        Windows the mapping can keep the file from being replaced until
+     *        it is garbage collected, so leave this at 1 there.
+     */
+    public FileAttendanceDao(String filePath, boolean journalEnabled, boolean snapshotEnabled, int loadParallelism) {
+        if (loadParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + loadParallelism);
+        }
         this.filePath = filePath;
-        this.attendanceRecords = new ArrayList<>();
-        loadAttendance();
+        this.snapshotEnabled = snapshotEnabled;
+        this.loadParallelism = loadParallelism;
+        this.csvFile = new TrackedFile(filePath);
+        this.attendanceRecords = new LinkedHashMap<>();
+        this.employeeIndex = new ConcurrentHashMap<>();
+        this.periodTotals = new PayPeriodAccumulator(LocalDate.now());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            employeeLocks[i] = new ReentrantLock();
+        }
+        if (journalEnabled) {
+            this.journal = new AttendanceJournal(filePath);
+        }
+        load();
+    }
+    
+    /**
+     * Discard the records in memory, including unsaved changes, and read
+     * them again from the CSV and journal
+     */
+    public void reload() {
+        fileLock.writeLock().lock();
+        try {
+            // Load into a separate instance so readers keep seeing the old
+            // records until the new ones are complete
+            FileAttendanceDao loaded = new FileAttendanceDao(filePath, journal != null, snapshotEnabled, loadParallelism);
+            attendanceRecords = loaded.attendanceRecords;
+            employeeIndex = loaded.employeeIndex;
+            periodTotals = loaded.periodTotals;
+            journal = loaded.journal;
+            csvFile = loaded.csvFile;
+            todayRecordCache = new ConcurrentHashMap<>();
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Fold saved journal entries into the CSV before the DAO is discarded.
+     * Changes not yet saved with saveAttendance() are not written.
+     */
+    public void close() {
+        compact();
+    }
+    
+    /**
+     * Bring the records up to date with changes other programs made to the CSV.
+     * Rows appended to the end of the file are read on their own and keep any
+     * unsaved changes; any other edit reloads everything like reload(). With
+     * a journal, changes not yet saved are written to it first, so the reload
+     * replays them instead of dropping them.
+     * @return True if the CSV had changed
+     */
+    public boolean refresh() {
+        fileLock.writeLock().lock();
+        try {
+            switch (csvFile.check()) {
+                case APPENDED:
+                    int lineOffset = csvFile.getLineCount();
+                    byte[] appended = csvFile.readAppended();
+                    readRecords(appended, lineOffset, false);
+                    if (appended.length == 0) {
+                        return false;
+                    }
+                    // An appended row may be someone's record for today
+                    todayRecordCache = new ConcurrentHashMap<>();
+                    return true;
+                case REWRITTEN:
+                    if (journal != null) {
+                        journal.flush();
+                    }
+                    reload();
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Error checking attendance file for changes: " + e.getMessage(), e);
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+    
+    private void load() {
+        long start = System.nanoTime();
+        try {
+            loadFiles();
+        } finally {
+            LOAD_TIMER.recordSince(start);
+        }
+    }
+    
+    private void loadFiles() {
+        // Capture the CSV's size and time before it is read
+        BinarySnapshot snapshot = snapshotEnabled ? new BinarySnapshot(filePath, BinarySnapshot.ATTENDANCE) : null;
+        if (snapshot != null && loadSnapshot(snapshot)) {
+            // The CSV is only read if refresh() finds that it has changed
+            csvFile.assumeRead(snapshot.getSourceLength(), snapshot.getSourceModified(),
+                snapshot.getSourceChecksum());
+        } else {
+            parseCsvFile();
+            if (snapshot != null) {
+                snapshot.write(encodeSnapshot(), csvFile.getChecksum());
+            }
+        }
+        
+        if (journal != null) {
+            replayJournal();
+        }
+    }
+    
+    // Parse the whole CSV, in parallel chunks when it is large enough
+    private void parseCsvFile() {
+        long csvSize = getCsvFileSize();
+        if (loadParallelism > 1 && csvSize >= PARALLEL_LOAD_MIN_BYTES) {
+            long chunkSize = Math.max(MIN_LOAD_CHUNK_BYTES,
+                Math.min(MAX_LOAD_CHUNK_BYTES, csvSize / (loadParallelism * 4L)));
+            readChunks(mapCsvFile(chunkSize));
+        } else {
+            readRecords(readCsvFile(), 0, true);
+        }
+    }
+    
+    // Read the whole CSV and remember its content for refresh()
+    private byte[] readCsvFile() {
+        try {
+            return csvFile.readAll();
+        } catch (NoSuchFileException e) {
+            throw new DataAccessException("Attendance data file not found: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DataAccessException("Unexpected error reading attendance file: " + e.getMessage(), e);
+        }
+    }
+    
+    // Map the whole CSV in chunks and remember its content for refresh()
+    private List<ByteBuffer> mapCsvFile(long chunkSize) {
+        try {
+            return csvFile.mapAll(chunkSize);
+        } catch (NoSuchFileException e) {
+            throw new DataAccessException("Attendance data file not found: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DataAccessException("Unexpected error reading attendance file: " + e.getMessage(), e);
+        }
+    }
+    
+    private long getCsvFileSize() {
+        try {
+            return Files.size(Paths.get(filePath));
+        } catch (IOException e) {
+            // Reading the file reports the problem
+            return 0;
+        }
+    }
+    
+    // Remember the CSV's content after this DAO rewrote it, so refresh() ignores the change
+    private void trackCsvFile() {
+        try {
+            csvFile.readAll();
+        } catch (IOException e) {
+            System.err.println("Error reading back attendance file: " + e.getMessage());
+        }
+    }
+    
+    // Parse CSV rows into records; lineOffset is the file line before the first row
+    private void readRecords(byte[] content, int lineOffset, boolean hasHeader) {
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(content), Charset.defaultCharset());
+        addRows(parseRows(reader, hasHeader), lineOffset);
     }
     
-    private void loadAttendance() {
-        File file = new File(filePath);
+    // Parse the mapped chunks of the whole CSV in parallel and add their
+    // records in file order. Only called while the DAO is being constructed.
+    private void readChunks(List<ByteBuffer> chunks) {
+        List<Callable<ParsedRows>> tasks = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            ByteBuffer chunk = chunks.get(i);
+            boolean hasHeader = i == 0;
+            tasks.add(() -> parseChunk(chunk, hasHeader));
+        }
         
-        try (Scanner scanner = new Scanner(file)) {
-            // Skip header line
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
+        ForkJoinPool pool = new ForkJoinPool(loadParallelism);
+        try {
+            List<ParsedRows> parsedChunks = new ArrayList<>(chunks.size());
+            for (Future<ParsedRows> result : pool.invokeAll(tasks)) {
+                parsedChunks.add(result.get());
             }
             
-            int lineCount = 0;
+            for (ParsedRows parsed : parsedChunks) {
+                if (!parsed.quotesBalanced) {
+                    // A quoted field with a line break spans two chunks, so the
+                    // chunks were not split between records; read the file whole
+                    readRecords(concatenate(chunks), 0, true);
+                    return;
+                }
+            }
             
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                lineCount++;
-                
-                // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
+            int recordCount = 0;
+            for (ParsedRows parsed : parsedChunks) {
+                recordCount += parsed.records.size();
+            }
+            
+            // The saving order is the file order, so the ordered map is filled
+            // on this thread. Each chunk numbers its lines from 1; offset them
+            // by the lines before it.
+            orderLock.writeLock().lock();
+            try {
+                attendanceRecords = new LinkedHashMap<>((int) (recordCount / 0.75f) + 1);
+                int lineOffset = 0;
+                for (ParsedRows parsed : parsedChunks) {
+                    reportErrors(parsed, lineOffset);
+                    for (Attendance attendance : parsed.records) {
+                        attendanceRecords.put(recordKey(attendance.getEmployeeId(), attendance.getEpochDay()), attendance);
+                    }
+                    lineOffset += parsed.lineCount;
                 }
+            } finally {
+                orderLock.writeLock().unlock();
+            }
+            
+            // Duplicates are gone from the ordered map, and employees' indexes
+            // are independent, so they are built in parallel
+            List<Attendance> records = new ArrayList<>(attendanceRecords.values());
+            pool.submit(() -> records.parallelStream().forEach(this::indexRecord)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessException("Loading attendance file was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataAccessException) {
+                throw (DataAccessException) e.getCause();
+            }
+            throw new DataAccessException("Unexpected error reading attendance file: " + e.getCause().getMessage(),
+                e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    // Parse one chunk of the CSV; runs on a load thread
+    private static ParsedRows parseChunk(ByteBuffer chunk, boolean hasHeader) {
+        CharBuffer chars = Charset.defaultCharset().decode(chunk.duplicate());
+        ParsedRows parsed = parseRows(
+            new CharArrayReader(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining()), hasHeader);
+        
+        int quotes = 0;
+        for (int i = chars.position(); i < chars.limit(); i++) {
+            if (chars.get(i) == '"') {
+                quotes++;
+            }
+        }
+        parsed.quotesBalanced = quotes % 2 == 0;
+        return parsed;
+    }
+    
+    // Parse CSV rows without touching the DAO's state, so chunks can be parsed
+    // in parallel. Line numbers count from the first line the reader returns.
+    private static ParsedRows parseRows(Reader reader, boolean hasHeader) {
+        ParsedRows parsed = new ParsedRows();
+        
+        try (CsvReader csv = new CsvReader(reader)) {
+            if (hasHeader) {
+                // Skip header line
+                csv.next();
+            }
+            
+            while (csv.next()) {
+                int lineNumber = csv.getLineNumber();
                 
                 try {
-                    String[] data = parseCSVLine(line);
-                    
                     // Check if we have the minimum required columns
-                    if (data.length < 4) {
-                        System.err.println("Invalid attendance data at line " + lineCount + ": " + line);
+                    if (csv.getFieldCount() < 4) {
+                        parsed.addError("Invalid attendance data", lineNumber,
+                            "expected at least 4 columns but found " + csv.getFieldCount());
                         continue;
                     }
                     
                     // Parse employee ID from first column
-                    int employeeId = Integer.parseInt(data[0].trim());
+                    int employeeId = csv.getInt(0);
                     
                     // Parse date from column 3
-                    LocalDate date = LocalDate.parse(data[3].trim(), DATE_FORMATTER);
+                    int epochDay = readEpochDay(csv, 3);
                     
                     // Parse time in from column 4 with proper formatting
-                    String timeInStr = data.length > 4 ? data[4].trim() : "";
-                    LocalTime timeIn = parseTime(timeInStr);
+                    int timeIn = readMinuteOfDay(csv, 4);
                     
                     // Parse time out from column 5 with proper formatting
-                    String timeOutStr = data.length > 5 ? data[5].trim() : "";
-                    LocalTime timeOut = parseTime(timeOutStr);
+                    int timeOut = readMinuteOfDay(csv, 5);
                     
-                    Attendance attendance = new Attendance(employeeId, date, timeIn, timeOut);
-                    attendanceRecords.add(attendance);
+                    parsed.records.add(Attendance.ofMinutes(employeeId, epochDay, timeIn, timeOut));
                 } catch (Exception e) {
-                    System.err.println("Error at line " + lineCount + ": " + e.getMessage());
+                    parsed.addError("Error", lineNumber, e.getMessage());
                 }
             }
             
-        } catch (FileNotFoundException e) {
-            throw new DataAccessException("Attendance data file not found: " + e.getMessage(), e);
+            // At the end of the stream the reader is on the line after the last line break
+            parsed.lineCount = csv.getLineNumber() - 1;
         } catch (Exception e) {
             throw new DataAccessException("Unexpected error reading attendance file: " + e.getMessage(), e);
         }
+        return parsed;
+    }
+    
+    // Add parsed rows to the store and report their errors; lineOffset is the
+    // file line before the first parsed line
+    private void addRows(ParsedRows parsed, int lineOffset) {
+        reportErrors(parsed, lineOffset);
+        for (Attendance attendance : parsed.records) {
+            putRecord(attendance);
+        }
+    }
+    
+    private static void reportErrors(ParsedRows parsed, int lineOffset) {
+        for (ParsedRows.RowError error : parsed.errors) {
+            System.err.println(error.problem + " at line " + (lineOffset + error.lineNumber) + ": " + error.detail);
+        }
+    }
+    
+    private static byte[] concatenate(List<ByteBuffer> chunks) {
+        int size = 0;
+        for (ByteBuffer chunk : chunks) {
+            size = Math.addExact(size, chunk.remaining());
+        }
+        byte[] content = new byte[size];
+        int position = 0;
+        for (ByteBuffer chunk : chunks) {
+            int length = chunk.remaining();
+            chunk.duplicate().get(content, position, length);
+            position += length;
+        }
+        return content;
+    }
+    
+    // Load records from the binary snapshot; returns false if it cannot be used
+    private boolean loadSnapshot(BinarySnapshot snapshot) {
+        ByteBuffer payload = snapshot.read();
+        if (payload == null) {
+            return false;
+        }
+        
+        try {
+            int count = payload.getInt();
+            for (int i = 0; i < count; i++) {
+                int employeeId = payload.getInt();
+                int epochDay = payload.getInt();
+                short timeIn = payload.getShort();
+                short timeOut = payload.getShort();
+                putRecord(Attendance.ofMinutes(employeeId, epochDay, timeIn, timeOut));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Error reading attendance snapshot, loading CSV instead: " + e.getMessage());
+            attendanceRecords.clear();
+            employeeIndex.clear();
+            periodTotals = new PayPeriodAccumulator(periodTotals.getStartDate());
+            return false;
+        }
+    }
+    
+    // Encode the loaded records, in file order, as a snapshot payload
+    private ByteBuffer encodeSnapshot() {
+        ByteBuffer payload = ByteBuffer.allocate(4 + attendanceRecords.size() * SNAPSHOT_RECORD_SIZE);
+        payload.putInt(attendanceRecords.size());
+        for (Attendance att : attendanceRecords.values()) {
+            payload.putInt(att.getEmployeeId())
+                   .putInt(att.getEpochDay())
+                   .putShort((short) att.getTimeInMinute())
+                   .putShort((short) att.getTimeOutMinute());
+        }
+        return payload.flip();
     }
     
     @Override
     public List<Attendance> getAllAttendance() {
-        return new ArrayList<>(attendanceRecords);
+        orderLock.readLock().lock();
+        try {
+            return new ArrayList<>(attendanceRecords.values());
+        } finally {
+            orderLock.readLock().unlock();
+        }
     }
     
     @Override
     public List<Attendance> getAttendanceByEmployeeId(int employeeId) {
-        return attendanceRecords.stream()
-            .filter(a -> a.getEmployeeId() == employeeId)
-            .collect(Collectors.toList());
+        NavigableMap<Integer, Attendance> records = employeeIndex.get(employeeId);
+        if (records == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(records.values());
     }
     
     @Override
     public List<Attendance> getAttendanceByDateRange(int employeeId, LocalDate startDate, LocalDate endDate) {
-        return attendanceRecords.stream()
-            .filter(a -> a.getEmployeeId() == employeeId)
-            .filter(a -> !a.getDate().isBefore(startDate) && !a.getDate().isAfter(endDate))
-            .collect(Collectors.toList());
+        long start = System.nanoTime();
+        try {
+            NavigableMap<Integer, Attendance> records = employeeIndex.get(employeeId);
+            if (records == null || startDate.isAfter(endDate)) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(records.subMap(
+                (int) startDate.toEpochDay(), true, (int) endDate.toEpochDay(), true).values());
+        } finally {
+            EMPLOYEE_RANGE_TIMER.recordSince(start);
+        }
     }
     
     @Override
-    public void addAttendance(Attendance attendance) {
-        // Check if record already exists for this employee and date
-        boolean recordExists = attendanceRecords.stream()
-            .anyMatch(a -> a.getEmployeeId() == attendance.getEmployeeId() && 
-                     a.getDate().equals(attendance.getDate()));
-                     
-        if (recordExists) {
-            // Remove existing record
-            attendanceRecords.removeIf(a -> a.getEmployeeId() == attendance.getEmployeeId() && 
-                              a.getDate().equals(attendance.getDate()));
+    public List<Attendance> getAttendanceByDateRange(LocalDate startDate, LocalDate endDate) {
+        long start = System.nanoTime();
+        List<Attendance> result = new ArrayList<>();
+        try {
+            if (startDate.isAfter(endDate)) {
+                return result;
+            }
+            // Records come back grouped by employee and sorted by date within each group
+            int startDay = (int) startDate.toEpochDay();
+            int endDay = (int) endDate.toEpochDay();
+            for (NavigableMap<Integer, Attendance> records : employeeIndex.values()) {
+                result.addAll(records.subMap(startDay, true, endDay, true).values());
+            }
+            return result;
+        } finally {
+            ALL_RANGE_TIMER.recordSince(start);
+            ALL_RANGE_RECORDS.record(result.size());
         }
-        
-        attendanceRecords.add(attendance);
     }
     
     @Override
-    public void updateAttendance(Attendance attendance) {
-        boolean updated = false;
-        
-        for (int i = 0; i < attendanceRecords.size(); i++) {
-            Attendance record = attendanceRecords.get(i);
-            if (record.getEmployeeId() == attendance.getEmployeeId() && 
-                record.getDate().equals(attendance.getDate())) {
-                attendanceRecords.set(i, attendance);
-                updated = true;
-                break;
-            }
+    public AttendanceTotals getPayPeriodTotals(int employeeId, LocalDate date) {
+        PayPeriodAccumulator accumulator = getCurrentPeriodTotals();
+        if (accumulator.covers(date)) {
+            return accumulator.get(employeeId);
         }
         
-        if (!updated) {
-            throw new DataAccessException("Attendance record not found for update");
+        // Past periods are summed from the index
+        NavigableMap<Integer, Attendance> records = employeeIndex.get(employeeId);
+        if (records == null) {
+            return PayPeriodAccumulator.sum(employeeId, new ArrayList<>());
         }
+        return PayPeriodAccumulator.sum(employeeId, records.subMap(
+            (int) DateTimeUtil.getPayPeriodStart(date).toEpochDay(), true,
+            (int) DateTimeUtil.getPayPeriodEnd(date).toEpochDay(), true).values());
+    }
+    
+    @Override
+    public void addAttendance(Attendance attendance) {
+        withEmployeeLock(attendance.getEmployeeId(), () -> {
+            // Replace any existing record for this employee and date; the new
+            // record moves to the end of the file order like a fresh punch
+            removeRecord(attendance.getEmployeeId(), attendance.getEpochDay());
+            putRecord(attendance);
+            
+            if (journal != null) {
+                journal.recordAdd(attendance);
+            }
+        });
+    }
+    
+    @Override
+    public void updateAttendance(Attendance attendance) {
+        withEmployeeLock(attendance.getEmployeeId(), () -> {
+            NavigableMap<Integer, Attendance> records = employeeIndex.get(attendance.getEmployeeId());
+            
+            if (records == null || !records.containsKey(attendance.getEpochDay())) {
+                throw new DataAccessException("Attendance record not found for update");
+            }
+            
+            // Overwriting an existing key keeps its position in the file order
+            putRecord(attendance);
+            
+            if (journal != null) {
+                journal.recordUpdate(attendance);
+            }
+        });
     }
     
     @Override
     public void deleteAttendance(int employeeId, LocalDate date) {
-        boolean removed = attendanceRecords.removeIf(a -> 
-            a.getEmployeeId() == employeeId && a.getDate().equals(date));
+        withEmployeeLock(employeeId, () -> {
+            if (removeRecord(employeeId, (int) date.toEpochDay()) == null) {
+                throw new DataAccessException("Attendance record not found for deletion");
+            }
             
-        if (!removed) {
-            throw new DataAccessException("Attendance record not found for deletion");
-        }
+            if (journal != null) {
+                journal.recordDelete(employeeId, date);
+            }
+        });
+    }
+    
+    @Override
+    public ConcurrentMap<Integer, Attendance> getTodayRecordCache() {
+        return todayRecordCache;
     }
     
     @Override
     public boolean saveAttendance() {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            // Write header
-            writer.println("Employee #,Last Name,First Name,Date,Time In,Time Out");
-            
-            // Write data
-            for (Attendance att : attendanceRecords) {
-                writer.printf("%d,,%s,%s,%s,%s\n",
-                    att.getEmployeeId(), 
-                    "",
-                    att.getDate().format(DATE_FORMATTER),
-                    att.getTimeIn() != null ? att.getTimeIn().format(TIME_FORMATTER) : "",
-                    att.getTimeOut() != null ? att.getTimeOut().format(TIME_FORMATTER) : "");
+        long start = System.nanoTime();
+        try {
+            return saveChanges();
+        } finally {
+            SAVE_TIMER.recordSince(start);
+        }
+    }
+    
+    // Write the changes to the journal, or the whole CSV without one
+    private boolean saveChanges() {
+        if (journal == null) {
+            fileLock.writeLock().lock();
+            try {
+                boolean written = writeSnapshot();
+                if (written) {
+                    trackCsvFile();
+                }
+                return written;
+            } finally {
+                fileLock.writeLock().unlock();
+            }
+        }
+        
+        // Writers may keep adding entries while the journal is flushed
+        fileLock.readLock().lock();
+        try {
+            // Append only the changes since the last save
+            journal.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing attendance journal: " + e.getMessage());
+            return false;
+        } finally {
+            fileLock.readLock().unlock();
+        }
+        
+        if (journal.getEntryCount() >= JOURNAL_COMPACTION_THRESHOLD) {
+            return compact();
+        }
+        return true;
+    }
+    
+    /**
+     * Fold the saved journal entries into the CSV snapshot and clear the journal.
+     * Changes not yet saved with saveAttendance() are not included.
+     * @return True if the snapshot was written
+     */
+    public boolean compact() {
+        if (journal == null) {
+            return true;
+        }
+        
+        fileLock.writeLock().lock();
+        try {
+            boolean compacted = compactFiles(filePath);
+            if (compacted) {
+                journal.resetEntryCount();
+                trackCsvFile();
+            }
+            return compacted;
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+    
+    // Rebuild the snapshot from the files on disk so that entries saved by
+    // other DAO instances on the same file are never dropped
+    private static boolean compactFiles(String filePath) {
+        synchronized (COMPACTION_LOCK) {
+            try {
+                AttendanceJournal fileJournal = new AttendanceJournal(filePath);
+                if (!fileJournal.hasEntriesOnDisk()) {
+                    return true;
+                }
+                FileAttendanceDao merged = new FileAttendanceDao(filePath, false);
+                if (fileJournal.replay(merged::applyJournalEntry) == 0) {
+                    return true;
+                }
+                if (!merged.writeSnapshot()) {
+                    return false;
+                }
+                fileJournal.truncate();
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error compacting attendance journal: " + e.getMessage());
+                return false;
             }
+        }
+    }
+    
+    private void replayJournal() {
+        try {
+            journal.replay(this::applyJournalEntry);
+        } catch (IOException e) {
+            throw new DataAccessException("Error reading attendance journal: " + e.getMessage(), e);
+        }
+    }
+    
+    // Apply a replayed entry; entries may already be in the snapshot if a
+    // compaction was interrupted, so missing records are not an error
+    private void applyJournalEntry(char operation, Attendance attendance) {
+        switch (operation) {
+            case AttendanceJournal.ADD:
+                removeRecord(attendance.getEmployeeId(), attendance.getEpochDay());
+                putRecord(attendance);
+                break;
+            case AttendanceJournal.UPDATE:
+                putRecord(attendance);
+                break;
+            case AttendanceJournal.DELETE:
+                removeRecord(attendance.getEmployeeId(), attendance.getEpochDay());
+                break;
+            default:
+                break;
+        }
+    }
+    
+    // Write every record to the CSV file, replacing its contents
+    private boolean writeSnapshot() {
+        orderLock.readLock().lock();
+        try {
+            // Readers of the file see the old or the new version, never part of one
+            AtomicFile.write(filePath, writer -> {
+                CsvWriter csv = new CsvWriter(writer);
+                
+                // Write header
+                csv.writeLine("Employee #,Last Name,First Name,Date,Time In,Time Out");
+                
+                // Write data; the name columns are left empty
+                for (Attendance att : attendanceRecords.values()) {
+                    csv.writeInt(att.getEmployeeId())
+                       .writeEmpty()
+                       .writeEmpty()
+                       .writeDate(att.getEpochDay())
+                       .writeTime(att.getTimeInMinute())
+                       .writeTime(att.getTimeOutMinute())
+                       .endRow();
+                }
+                csv.flush();
+            });
             
             System.out.println("Attendance data saved successfully to: " + filePath);
             return true;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error writing attendance data: " + e.getMessage());
             return false;
         }
     }
     
-    // Helper method to handle quoted fields and commas within fields
-    private String[] parseCSVLine(String line) {
-        List<String> tokens = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
+    // Helper method to build the (employee, date) key for the record map
+    private static long recordKey(int employeeId, int epochDay) {
+        return ((long) employeeId << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+    
+    // Helper method to run a change to one employee's records under that employee's stripe
+    private void withEmployeeLock(int employeeId, Runnable change) {
+        ReentrantLock employeeLock = employeeLocks[Math.floorMod(employeeId, LOCK_STRIPES)];
+        fileLock.readLock().lock();
+        employeeLock.lock();
+        try {
+            change.run();
+        } finally {
+            employeeLock.unlock();
+            fileLock.readLock().unlock();
+        }
+    }
+    
+    // Helper method to store a record in both the ordered map and the date index.
+    // Callers hold the employee's stripe or have the DAO to themselves.
+    private void putRecord(Attendance attendance) {
+        orderLock.writeLock().lock();
+        try {
+            attendanceRecords.put(recordKey(attendance.getEmployeeId(), attendance.getEpochDay()), attendance);
+        } finally {
+            orderLock.writeLock().unlock();
+        }
+        indexRecord(attendance);
+    }
+    
+    // Helper method to add a record to its employee's date index and period totals
+    private void indexRecord(Attendance attendance) {
+        Attendance replaced = employeeIndex.computeIfAbsent(attendance.getEmployeeId(), id -> new ConcurrentSkipListMap<>())
+            .put(attendance.getEpochDay(), attendance);
+        periodTotals.replace(replaced, attendance);
+    }
+    
+    // Helper method to remove a record from both the ordered map and the date index
+    private Attendance removeRecord(int employeeId, int epochDay) {
+        Attendance removed;
+        orderLock.writeLock().lock();
+        try {
+            removed = attendanceRecords.remove(recordKey(employeeId, epochDay));
+        } finally {
+            orderLock.writeLock().unlock();
+        }
         
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                // Toggle the inQuotes flag
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                // If we're not in quotes, add the current token to the list
-                tokens.add(sb.toString());
-                sb = new StringBuilder();
-            } else {
-                // Add the character to the current token
-                sb.append(c);
+        if (removed != null) {
+            NavigableMap<Integer, Attendance> records = employeeIndex.get(employeeId);
+            records.remove(epochDay);
+            if (records.isEmpty()) {
+                employeeIndex.remove(employeeId, records);
             }
+            periodTotals.replace(removed, null);
         }
-        
-        // Add the last token
-        tokens.add(sb.toString());
-        
-        return tokens.toArray(new String[0]);
+        return removed;
     }
     
-    // Helper method to parse time strings with various formats
-    private LocalTime parseTime(String timeStr) {
-        if (timeStr == null || timeStr.trim().isEmpty()) {
-            return null;
+    // Helper method to get the totals of the pay period containing today. Once
+    // today moves into a new period they are summed again from the index, with
+    // writers paused so no change is counted twice or missed.
+    private PayPeriodAccumulator getCurrentPeriodTotals() {
+        LocalDate today = LocalDate.now();
+        PayPeriodAccumulator accumulator = periodTotals;
+        if (accumulator.covers(today)) {
+            return accumulator;
         }
         
+        fileLock.writeLock().lock();
         try {
-            // Try direct parsing
-            return LocalTime.parse(timeStr, TIME_FORMATTER);
-        } catch (DateTimeParseException e1) {
-            try {
-                // If single digit hour (e.g., "8:30"), add leading zero
-                if (timeStr.matches("^\\d:\\d\\d$")) {
-                    return LocalTime.parse("0" + timeStr, TIME_FORMATTER);
-                }
-                
-                // Split by colon and handle different formats
-                String[] parts = timeStr.split(":");
-                if (parts.length == 2) {
-                    String hour = parts[0].length() == 1 ? "0" + parts[0] : parts[0];
-                    String minute = parts[1].length() == 1 ? "0" + parts[1] : parts[1];
-                    return LocalTime.parse(hour + ":" + minute, TIME_FORMATTER);
+            if (!periodTotals.covers(today)) {
+                PayPeriodAccumulator next = new PayPeriodAccumulator(today);
+                int startDay = (int) next.getStartDate().toEpochDay();
+                int endDay = (int) next.getEndDate().toEpochDay();
+                for (NavigableMap<Integer, Attendance> records : employeeIndex.values()) {
+                    for (Attendance attendance : records.subMap(startDay, true, endDay, true).values()) {
+                        next.replace(null, attendance);
+                    }
                 }
-                
-                // Fall back to parsing as best we can
-                return LocalTime.parse(timeStr);
-            } catch (DateTimeParseException e2) {
-                System.err.println("Could not parse time: " + timeStr);
-                return null;
+                periodTotals = next;
+            }
+            return periodTotals;
+        } finally {
+            fileLock.writeLock().unlock();
+        }
+    }
+    
+    // Helper method to read a date column as an epoch day. Plain MM/dd/yyyy
+    // dates are parsed in place; anything else goes through the formatter,
+    // which throws DateTimeParseException if it is not a date.
+    static int readEpochDay(CsvReader csv, int index) {
+        int epochDay = csv.getEpochDay(index);
+        if (epochDay != DateTimeUtil.UNPARSEABLE) {
+            return epochDay;
+        }
+        return (int) LocalDate.parse(csv.getField(index).trim(), DATE_FORMATTER).toEpochDay();
+    }
+    
+    // Helper method to read a time column as minutes since midnight, or
+    // Attendance.NO_TIME. Plain H:mm and HH:mm times are parsed in place.
+    static int readMinuteOfDay(CsvReader csv, int index) {
+        int minuteOfDay = csv.getMinuteOfDay(index);
+        if (minuteOfDay != DateTimeUtil.UNPARSEABLE) {
+            return minuteOfDay;
+        }
+        LocalTime time = parseTime(csv.getField(index).trim());
+        return time != null ? time.getHour() * 60 + time.getMinute() : Attendance.NO_TIME;
+    }
+    
+    // Helper method to parse time strings with various formats
+    static LocalTime parseTime(String timeStr) {
+        LocalTime time = DateTimeUtil.parseTime(timeStr);
+        if (time == null && timeStr != null && !timeStr.trim().isEmpty()) {
+            System.err.println("Could not parse time: " + timeStr);
+        }
+        return time;
+    }
+    
+    // Records and errors parsed from a run of CSV lines, before they are added
+    // to the store
+    private static class ParsedRows {
+        final List<Attendance> records = new ArrayList<>();
+        final List<RowError> errors = new ArrayList<>();
+        // Line breaks read, so the next run's line numbers can follow on
+        int lineCount;
+        // False if the run ends inside a quoted field
+        boolean quotesBalanced = true;
+        
+        void addError(String problem, int lineNumber, String detail) {
+            errors.add(new RowError(problem, lineNumber, detail));
+        }
+        
+        // A row that could not be read; its line number counts from the start of the run
+        static class RowError {
+            final String problem;
+            final int lineNumber;
+            final String detail;
+            
+            RowError(String problem, int lineNumber, String detail) {
+                this.problem = problem;
+                this.lineNumber = lineNumber;
+                this.detail = detail;
             }
         }
     }
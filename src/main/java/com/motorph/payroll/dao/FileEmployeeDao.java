@@ -7,227 +7,495 @@ import com.motorph.payroll.model.EmployeeStatus;
 import com.motorph.payroll.model.PartTimeEmployee;
 import com.motorph.payroll.model.ProbationaryEmployee;
 import com.motorph.payroll.model.RegularEmployee;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.CsvWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class FileEmployeeDao implements EmployeeDao {
     private String filePath;
-    private List<Employee> employees;
+    // Employees keyed by ID, kept in file/insertion order
+    private Map<Integer, Employee> employees;
+    // Lookups share the read lock; changes, saves and reloads take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean snapshotEnabled;
+    // What has been read of the CSV, to tell appended rows from other edits
+    private TrackedFile csvFile;
+    
+    // Number of string and numeric columns stored per employee in the binary snapshot
+    private static final int TEXT_COLUMNS = 12;
+    private static final int AMOUNT_COLUMNS = 6;
+    
+    // Parsed CSV values of one employee, kept to write the binary snapshot
+    private static class SnapshotRow {
+        final int employeeId;
+        final String[] text;
+        final double[] amounts;
+        
+        SnapshotRow(int employeeId, String[] text, double[] amounts) {
+            this.employeeId = employeeId;
+            this.text = text;
+            this.amounts = amounts;
+        }
+    }
     
     public FileEmployeeDao(String filePath) {
+        this(filePath, false);
+    }
+    
+    /**
+     * Create an employee DAO backed by a CSV file
+     * @param filePath The employee CSV file
+     * @param snapshotEnabled True to load from a binary snapshot of the CSV
+     *        when it is current, and to write one after parsing the CSV
+     */
+    public FileEmployeeDao(String filePath, boolean snapshotEnabled) {
         this.filePath = filePath;
-        this.employees = new ArrayList<>();
-        loadEmployees();
+        this.snapshotEnabled = snapshotEnabled;
+        this.csvFile = new TrackedFile(filePath);
+        this.employees = new LinkedHashMap<>();
+        load();
+    }
+    
+    /**
+     * Discard the employees in memory, including unsaved changes, and read
+     * them again from the CSV. If the CSV cannot be read the employees are
+     * kept as they were.
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            // Load into a separate instance so a failed load leaves the
+            // current employees in place
+            FileEmployeeDao loaded = new FileEmployeeDao(filePath, snapshotEnabled);
+            employees = loaded.employees;
+            csvFile = loaded.csvFile;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Bring the employees up to date with changes other programs made to the
+     * CSV. Rows appended to the end of the file are read on their own and keep
+     * any unsaved changes; any other edit reloads everything like reload().
+     * @return True if the CSV had changed
+     */
+    public boolean refresh() {
+        lock.writeLock().lock();
+        try {
+            switch (csvFile.check()) {
+                case APPENDED:
+                    int lineOffset = csvFile.getLineCount();
+                    byte[] appended = csvFile.readAppended();
+                    readEmployees(appended, lineOffset, false, null);
+                    return appended.length > 0;
+                case REWRITTEN:
+                    reload();
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (IOException e) {
+            throw new DataAccessException("Error checking employee file for changes: " + e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void load() {
+        // Capture the CSV's size and time before it is read
+        BinarySnapshot snapshot = snapshotEnabled ? new BinarySnapshot(filePath, BinarySnapshot.EMPLOYEES) : null;
+        
+        if (snapshot == null) {
+            readEmployees(readCsvFile(), 0, true, null);
+        } else if (loadSnapshot(snapshot)) {
+            // The CSV is only read if refresh() finds that it has changed
+            csvFile.assumeRead(snapshot.getSourceLength(), snapshot.getSourceModified(),
+                snapshot.getSourceChecksum());
+        } else {
+            List<SnapshotRow> rows = new ArrayList<>();
+            readEmployees(readCsvFile(), 0, true, rows);
+            snapshot.write(encodeSnapshot(rows), csvFile.getChecksum());
+        }
+    }
+    
+    // Read the whole CSV and remember its content for refresh()
+    private byte[] readCsvFile() {
+        try {
+            return csvFile.readAll();
+        } catch (NoSuchFileException e) {
+            throw new DataAccessException("Employee data file not found: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new DataAccessException("Unexpected error reading employee file: " + e.getMessage(), e);
+        }
     }
     
-    private void loadEmployees() {
-        File file = new File(filePath);
+    // Remember the CSV's content after this DAO rewrote it, so refresh() ignores the change
+    private void trackCsvFile() {
+        try {
+            csvFile.readAll();
+        } catch (IOException e) {
+            System.err.println("Error reading back employee file: " + e.getMessage());
+        }
+    }
+    
+    // Parse CSV rows into employees; lineOffset is the file line before the first row
+    private void readEmployees(byte[] content, int lineOffset, boolean hasHeader, List<SnapshotRow> snapshotRows) {
+        Reader reader = new InputStreamReader(new ByteArrayInputStream(content), Charset.defaultCharset());
         
-        try (Scanner scanner = new Scanner(file)) {
-            // Skip header line
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
+        try (CsvReader csv = new CsvReader(reader)) {
+            if (hasHeader) {
+                // Skip header line
+                csv.next();
             }
             
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                
-                // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
+            while (csv.next()) {
                 try {
-                    // Parse CSV line
-                    String[] data = parseCSVLine(line);
+                    int columnCount = csv.getFieldCount();
                     
-                    if (data.length < 13) { // Check for minimum required columns
-                        System.err.println("WARNING: Line has fewer than expected columns: " + data.length);
+                    if (columnCount < 17) { // Check for minimum required columns
+                        System.err.println("WARNING: Line " + (lineOffset + csv.getLineNumber()) + 
+                            " has fewer than expected columns: " + columnCount);
                         continue;
                     }
                     
-                    int employeeId = Integer.parseInt(data[0].trim());
-                    String lastName = data[1].trim();
-                    String firstName = data[2].trim();
-                    String birthday = data[3].trim();
-                    String address = data[4].trim();
-                    String phoneNumber = data[5].trim();
-                    String sssNumber = data[6].trim();
-                    String philhealthNumber = data[7].trim();
-                    String tinNumber = data[8].trim();
-                    String pagibigNumber = data[9].trim();
-                    String status = data[10].trim();
-                    String position = data[11].trim();
-                    String supervisor = data[12].trim();
+                    int employeeId = csv.getInt(0);
+                    String lastName = csv.getField(1).trim();
+                    String firstName = csv.getField(2).trim();
+                    String birthday = csv.getField(3).trim();
+                    String address = csv.getField(4).trim();
+                    String phoneNumber = csv.getField(5).trim();
+                    String sssNumber = csv.getField(6).trim();
+                    String philhealthNumber = csv.getField(7).trim();
+                    String tinNumber = csv.getField(8).trim();
+                    String pagibigNumber = csv.getField(9).trim();
+                    String status = csv.getField(10).trim();
+                    String position = csv.getField(11).trim();
+                    String supervisor = csv.getField(12).trim();
                     
                     // Parse numeric fields safely
-                    double basicSalary = parseAmount(data[13].trim());
-                    double riceSubsidy = parseAmount(data[14].trim());
-                    double phoneAllowance = parseAmount(data[15].trim());
-                    double clothingAllowance = parseAmount(data[16].trim());
+                    double basicSalary = parseAmount(csv.getField(13).trim());
+                    double riceSubsidy = parseAmount(csv.getField(14).trim());
+                    double phoneAllowance = parseAmount(csv.getField(15).trim());
+                    double clothingAllowance = parseAmount(csv.getField(16).trim());
                     
                     // Handle optional fields
-                    double grossSemiMonthlyRate = (data.length > 17) ? parseAmount(data[17].trim()) : basicSalary / 2;
-                    double hourlyRate = (data.length > 18) ? parseAmount(data[18].trim()) : (basicSalary / 22) / 8;
+                    double grossSemiMonthlyRate = (columnCount > 17) ? parseAmount(csv.getField(17).trim()) : basicSalary / 2;
+                    double hourlyRate = (columnCount > 18) ? parseAmount(csv.getField(18).trim()) : (basicSalary / 22) / 8;
                     
+                    String[] text = {
+                        lastName, firstName, birthday, address, phoneNumber, sssNumber, philhealthNumber,
+                        tinNumber, pagibigNumber, status, position, supervisor
+                    };
+                    double[] amounts = {
+                        basicSalary, riceSubsidy, phoneAllowance, clothingAllowance, grossSemiMonthlyRate, hourlyRate
+                    };
+                    Employee employee = createEmployee(employeeId, text, amounts);
                     
-
-                    EmployeeStatus employeeStatus = EmployeeStatus.fromString(status);
-
-                    Employee employee;
-                    switch (employeeStatus) {
-                        case PROBATIONARY:
-                            employee = new ProbationaryEmployee(
-                                employeeId, lastName, firstName, birthday, address, phoneNumber,
-                                sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
-                                position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
-                                clothingAllowance, grossSemiMonthlyRate, hourlyRate
-                            );
-                            break;
-
-                        case CONTRACTUAL:
-                            employee = new ContractualEmployee(
-                                employeeId, lastName, firstName, birthday, address, phoneNumber,
-                                sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
-                                position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
-                                clothingAllowance, grossSemiMonthlyRate, hourlyRate
-                            );
-                            break;
-
-                        case PART_TIME:
-                            employee = new PartTimeEmployee(
-                                employeeId, lastName, firstName, birthday, address, phoneNumber,
-                                sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
-                                position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
-                                clothingAllowance, grossSemiMonthlyRate, hourlyRate
-                            );
-                            break;
-
-                        case REGULAR:
-                        default:
-                            employee = new RegularEmployee(
-                                employeeId, lastName, firstName, birthday, address, phoneNumber,
-                                sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
-                                position, "Jane Doe", 20000, riceSubsidy, phoneAllowance,
-                                clothingAllowance, grossSemiMonthlyRate, hourlyRate
-                            );
-                            break;
+                    // Keep the first record when an ID appears more than once
+                    if (employees.putIfAbsent(employeeId, employee) != null) {
+                        System.err.println("WARNING: Duplicate employee ID ignored: " + employeeId);
+                    } else if (snapshotRows != null) {
+                        snapshotRows.add(new SnapshotRow(employeeId, text, amounts));
                     }
-
-                    
-                    employees.add(employee);
                     
                 } catch (Exception e) {
                     System.err.println("Error parsing employee data: " + e.getMessage());
                 }
             }
             
-        } catch (FileNotFoundException e) {
-            throw new DataAccessException("Employee data file not found: " + e.getMessage(), e);
         } catch (Exception e) {
             throw new DataAccessException("Unexpected error reading employee file: " + e.getMessage(), e);
         }
     }
     
+    // Load employees from the binary snapshot; returns false if it cannot be used
+    private boolean loadSnapshot(BinarySnapshot snapshot) {
+        ByteBuffer payload = snapshot.read();
+        if (payload == null) {
+            return false;
+        }
+        
+        try {
+            // String table: lengths, then UTF-8 bytes
+            String[] strings = new String[payload.getInt()];
+            int[] lengths = new int[strings.length];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = payload.getInt();
+            }
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[lengths[i]];
+                payload.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            
+            // Fixed-width records referring to the string table
+            int count = payload.getInt();
+            for (int i = 0; i < count; i++) {
+                int employeeId = payload.getInt();
+                String[] text = new String[TEXT_COLUMNS];
+                for (int j = 0; j < TEXT_COLUMNS; j++) {
+                    text[j] = strings[payload.getInt()];
+                }
+                double[] amounts = new double[AMOUNT_COLUMNS];
+                for (int j = 0; j < AMOUNT_COLUMNS; j++) {
+                    amounts[j] = payload.getDouble();
+                }
+                employees.put(employeeId, createEmployee(employeeId, text, amounts));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Error reading employee snapshot, loading CSV instead: " + e.getMessage());
+            employees.clear();
+            return false;
+        }
+    }
+    
+    // Encode parsed rows as a snapshot payload, storing each distinct string once
+    private static ByteBuffer encodeSnapshot(List<SnapshotRow> rows) {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int stringBytes = 0;
+        int[][] textRefs = new int[rows.size()][TEXT_COLUMNS];
+        
+        for (int i = 0; i < rows.size(); i++) {
+            for (int j = 0; j < TEXT_COLUMNS; j++) {
+                String value = rows.get(i).text[j];
+                Integer index = stringIndex.get(value);
+                if (index == null) {
+                    index = strings.size();
+                    stringIndex.put(value, index);
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    strings.add(bytes);
+                    stringBytes += bytes.length;
+                }
+                textRefs[i][j] = index;
+            }
+        }
+        
+        int recordSize = 4 + TEXT_COLUMNS * 4 + AMOUNT_COLUMNS * 8;
+        ByteBuffer payload = ByteBuffer.allocate(
+            4 + strings.size() * 4 + stringBytes + 4 + rows.size() * recordSize);
+        
+        payload.putInt(strings.size());
+        for (byte[] bytes : strings) {
+            payload.putInt(bytes.length);
+        }
+        for (byte[] bytes : strings) {
+            payload.put(bytes);
+        }
+        
+        payload.putInt(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SnapshotRow row = rows.get(i);
+            payload.putInt(row.employeeId);
+            for (int j = 0; j < TEXT_COLUMNS; j++) {
+                payload.putInt(textRefs[i][j]);
+            }
+            for (int j = 0; j < AMOUNT_COLUMNS; j++) {
+                payload.putDouble(row.amounts[j]);
+            }
+        }
+        return payload.flip();
+    }
+    
     @Override
     public List<Employee> getAllEmployees() {
-        return new ArrayList<>(employees);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(employees.values());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
     
     @Override
     public Employee getEmployeeById(int id) {
-        return employees.stream()
-            .filter(emp -> emp.getEmployeeId() == id)
-            .findFirst()
-            .orElse(null);
+        lock.readLock().lock();
+        try {
+            return employees.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
     
     @Override
     public void addEmployee(Employee employee) {
-        // Ensure employee ID is unique
-        if (getEmployeeById(employee.getEmployeeId()) != null) {
-            throw new DataAccessException("Employee with ID " + employee.getEmployeeId() + " already exists");
+        lock.writeLock().lock();
+        try {
+            // Ensure employee ID is unique
+            if (employees.containsKey(employee.getEmployeeId())) {
+                throw new DataAccessException("Employee with ID " + employee.getEmployeeId() + " already exists");
+            }
+            employees.put(employee.getEmployeeId(), employee);
+        } finally {
+            lock.writeLock().unlock();
         }
-        employees.add(employee);
     }
     
     @Override
     public void updateEmployee(Employee employee) {
-        for (int i = 0; i < employees.size(); i++) {
-            if (employees.get(i).getEmployeeId() == employee.getEmployeeId()) {
-                employees.set(i, employee);
-                return;
+        lock.writeLock().lock();
+        try {
+            if (!employees.containsKey(employee.getEmployeeId())) {
+                throw new DataAccessException("Employee with ID " + employee.getEmployeeId() + " not found for update");
             }
+            // Replacing an existing key keeps the employee's position in the file
+            employees.put(employee.getEmployeeId(), employee);
+        } finally {
+            lock.writeLock().unlock();
         }
-        throw new DataAccessException("Employee with ID " + employee.getEmployeeId() + " not found for update");
     }
     
     @Override
     public void deleteEmployee(int id) {
-        boolean removed = employees.removeIf(emp -> emp.getEmployeeId() == id);
-        if (!removed) {
-            throw new DataAccessException("Employee with ID " + id + " not found for deletion");
+        lock.writeLock().lock();
+        try {
+            if (employees.remove(id) == null) {
+                throw new DataAccessException("Employee with ID " + id + " not found for deletion");
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
     
     @Override
     public boolean saveEmployees() {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            // Write header
-            writer.println("Employee #,Last Name,First Name,Birthday,Address,Phone Number,SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate");
-            
-            // Write data
-            for (Employee emp : employees) {
-                writer.printf("%d,%s,%s,%s,\"%s\",%s,%s,%s,%s,%s,%s,%s,\"%s\",%.2f,%.2f,%.2f,%.2f,%.2f,%.2f\n",
-                    emp.getEmployeeId(), emp.getLastName(), emp.getFirstName(), emp.getBirthday(),
-                    emp.getAddress(), emp.getPhoneNumber(), emp.getSssNumber(), 
-                    emp.getPhilhealthNumber(), emp.getTinNumber(), emp.getPagibigNumber(),
-                    emp.getStatus(), emp.getPosition(), emp.getSupervisor(), emp.getBasicSalary(),
-                    emp.getRiceSubsidy(), emp.getPhoneAllowance(), emp.getClothingAllowance(),
-                    emp.getGrossSemiMonthlyRate(), emp.getHourlyRate());
-            }
+        lock.writeLock().lock();
+        try {
+            return writeEmployees();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Helper method to write all employees to the CSV
+    private boolean writeEmployees() {
+        try {
+            // Readers of the file see the old or the new version, never part of one
+            AtomicFile.write(filePath, writer -> {
+                CsvWriter csv = new CsvWriter(writer);
+                
+                // Write header
+                csv.writeLine("Employee #,Last Name,First Name,Birthday,Address,Phone Number,SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate");
+                
+                // Write data
+                for (Employee emp : employees.values()) {
+                    csv.writeInt(emp.getEmployeeId())
+                       .writeText(emp.getLastName())
+                       .writeText(emp.getFirstName())
+                       .writeText(emp.getBirthday())
+                       .writeQuoted(emp.getAddress())
+                       .writeText(emp.getPhoneNumber())
+                       .writeText(emp.getSssNumber())
+                       .writeText(emp.getPhilhealthNumber())
+                       .writeText(emp.getTinNumber())
+                       .writeText(emp.getPagibigNumber())
+                       .writeText(emp.getStatus())
+                       .writeText(emp.getPosition())
+                       .writeQuoted(emp.getSupervisor())
+                       .writeAmount(emp.getBasicSalary())
+                       .writeAmount(emp.getRiceSubsidy())
+                       .writeAmount(emp.getPhoneAllowance())
+                       .writeAmount(emp.getClothingAllowance())
+                       .writeAmount(emp.getGrossSemiMonthlyRate())
+                       .writeAmount(emp.getHourlyRate())
+                       .endRow();
+                }
+                csv.flush();
+            });
             
             System.out.println("Employee data saved successfully to: " + filePath);
-            return true;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error writing employee data: " + e.getMessage());
             return false;
         }
+        
+        trackCsvFile();
+        return true;
     }
     
-    // Helper method to handle quoted fields and commas within fields
-    private String[] parseCSVLine(String line) {
-        List<String> tokens = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
+    // Helper method to build the employee subclass for a status from parsed fields.
+    // text holds the string columns from Last Name to Immediate Supervisor and
+    // amounts the numeric columns from Basic Salary to Hourly Rate.
+    private Employee createEmployee(int employeeId, String[] text, double[] amounts) {
+        String lastName = text[0];
+        String firstName = text[1];
+        String birthday = text[2];
+        String address = text[3];
+        String phoneNumber = text[4];
+        String sssNumber = text[5];
+        String philhealthNumber = text[6];
+        String tinNumber = text[7];
+        String pagibigNumber = text[8];
+        String status = text[9];
+        String position = text[10];
+        String supervisor = text[11];
+        double basicSalary = amounts[0];
+        double riceSubsidy = amounts[1];
+        double phoneAllowance = amounts[2];
+        double clothingAllowance = amounts[3];
+        double grossSemiMonthlyRate = amounts[4];
+        double hourlyRate = amounts[5];
         
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                // Toggle the inQuotes flag
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                // If we're not in quotes, add the current token to the list
-                tokens.add(sb.toString());
-                sb = new StringBuilder();
-            } else {
-                // Add the character to the current token
-                sb.append(c);
-            }
+        EmployeeStatus employeeStatus = EmployeeStatus.fromString(status);
+
+        Employee employee;
+        switch (employeeStatus) {
+            case PROBATIONARY:
+                employee = new ProbationaryEmployee(
+                    employeeId, lastName, firstName, birthday, address, phoneNumber,
+                    sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
+                    position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
+                    clothingAllowance, grossSemiMonthlyRate, hourlyRate
+                );
+                break;
+
+            case CONTRACTUAL:
+                employee = new ContractualEmployee(
+                    employeeId, lastName, firstName, birthday, address, phoneNumber,
+                    sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
+                    position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
+                    clothingAllowance, grossSemiMonthlyRate, hourlyRate
+                );
+                break;
+
+            case PART_TIME:
+                employee = new PartTimeEmployee(
+                    employeeId, lastName, firstName, birthday, address, phoneNumber,
+                    sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
+                    position, supervisor, basicSalary, riceSubsidy, phoneAllowance,
+                    clothingAllowance, grossSemiMonthlyRate, hourlyRate
+                );
+                break;
+
+            case REGULAR:
+            default:
+                employee = new RegularEmployee(
+                    employeeId, lastName, firstName, birthday, address, phoneNumber,
+                    sssNumber, philhealthNumber, tinNumber, pagibigNumber, status,
+                    position, "Jane Doe", 20000, riceSubsidy, phoneAllowance,
+                    clothingAllowance, grossSemiMonthlyRate, hourlyRate
+                );
+                break;
         }
-        
-        // Add the last token
-        tokens.add(sb.toString());
-        
-        return tokens.toArray(new String[0]);
+
+        return employee;
     }
     
-    // Helper method to properly parse amounts that may contain commas
     private double parseAmount(String amount) {
         try {
             // Remove quotes and commas from the amount string
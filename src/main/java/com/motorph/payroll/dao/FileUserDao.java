@@ -2,16 +2,21 @@ package com.motorph.payroll.dao;
 
 import com.motorph.payroll.exception.DataAccessException;
 import com.motorph.payroll.model.User;
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.CsvWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.FileReader;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class FileUserDao implements UserDao {
     private String filePath;
     private List<User> users;
+    // Lookups share the read lock; changes, saves and reloads take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     
     public FileUserDao(String filePath) {
         this.filePath = filePath;
@@ -19,30 +24,33 @@ public class FileUserDao implements UserDao {
         loadUsers();
     }
     
+    /**
+     * Discard the users in memory, including unsaved changes, and read them
+     * again from the CSV
+     */
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            users.clear();
+            loadUsers();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
     private void loadUsers() {
         File file = new File(filePath);
         
-        try (Scanner scanner = new Scanner(file)) {
+        try (CsvReader csv = new CsvReader(new FileReader(file))) {
             // Skip header line
-            if (scanner.hasNextLine()) {
-                scanner.nextLine();
-            }
+            csv.next();
             
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine().trim();
-                
-                // Skip empty lines
-                if (line.isEmpty()) {
-                    continue;
-                }
-                
+            while (csv.next()) {
                 try {
-                    String[] data = parseCSVLine(line);
-                    
-                    if (data.length >= 3) {
-                        String username = data[0].trim();
-                        String password = data[1].trim();
-                        String userType = data[2].trim();
+                    if (csv.getFieldCount() >= 3) {
+                        String username = csv.getField(0).trim();
+                        String password = csv.getField(1).trim();
+                        String userType = csv.getField(2).trim();
                         
                         User user = new User(username, password, userType);
                         users.add(user);
@@ -61,91 +69,117 @@ public class FileUserDao implements UserDao {
     
     @Override
     public List<User> getAllUsers() {
-        return new ArrayList<>(users);
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(users);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
     
     @Override
     public User getUserByUsername(String username) {
-        return users.stream()
-            .filter(user -> user.getUsername().equals(username))
-            .findFirst()
-            .orElse(null);
+        lock.readLock().lock();
+        try {
+            return users.stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findFirst()
+                .orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
     
     @Override
     public User authenticateUser(String username, String password) {
-        return users.stream()
-            .filter(user -> user.getUsername().equals(username) && user.getPassword().equals(password))
-            .findFirst()
-            .orElse(null);
+        lock.readLock().lock();
+        try {
+            return users.stream()
+                .filter(user -> user.getUsername().equals(username) && user.getPassword().equals(password))
+                .findFirst()
+                .orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
     
     @Override
     public void addUser(User user) {
-        if (getUserByUsername(user.getUsername()) != null) {
-            throw new DataAccessException("User with username " + user.getUsername() + " already exists");
+        lock.writeLock().lock();
+        try {
+            if (getUserByUsername(user.getUsername()) != null) {
+                throw new DataAccessException("User with username " + user.getUsername() + " already exists");
+            }
+            users.add(user);
+        } finally {
+            lock.writeLock().unlock();
         }
-        users.add(user);
     }
     
     @Override
     public void updateUser(User user) {
-        for (int i = 0; i < users.size(); i++) {
-            if (users.get(i).getUsername().equals(user.getUsername())) {
-                users.set(i, user);
-                return;
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < users.size(); i++) {
+                if (users.get(i).getUsername().equals(user.getUsername())) {
+                    users.set(i, user);
+                    return;
+                }
             }
+            throw new DataAccessException("User with username " + user.getUsername() + " not found for update");
+        } finally {
+            lock.writeLock().unlock();
         }
-        throw new DataAccessException("User with username " + user.getUsername() + " not found for update");
     }
     
     @Override
     public void deleteUser(String username) {
-        boolean removed = users.removeIf(user -> user.getUsername().equals(username));
-        if (!removed) {
-            throw new DataAccessException("User with username " + username + " not found for deletion");
+        lock.writeLock().lock();
+        try {
+            boolean removed = users.removeIf(user -> user.getUsername().equals(username));
+            if (!removed) {
+                throw new DataAccessException("User with username " + username + " not found for deletion");
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
     
     @Override
     public boolean saveUsers() {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            // Write header
-            writer.println("Username,Password,UserType");
-            
-            // Write data
-            for (User user : users) {
-                writer.printf("%s,%s,%s\n",
-                    user.getUsername(), user.getPassword(), user.getUserType());
-            }
+        lock.writeLock().lock();
+        try {
+            return writeUsers();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Helper method to write all users to the CSV
+    private boolean writeUsers() {
+        try {
+            // Readers of the file see the old or the new version, never part of one
+            AtomicFile.write(filePath, writer -> {
+                CsvWriter csv = new CsvWriter(writer);
+                
+                // Write header
+                csv.writeLine("Username,Password,UserType");
+                
+                // Write data
+                for (User user : users) {
+                    csv.writeText(user.getUsername())
+                       .writeText(user.getPassword())
+                       .writeText(user.getUserType())
+                       .endRow();
+                }
+                csv.flush();
+            });
             
             System.out.println("User data saved successfully to: " + filePath);
             return true;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.err.println("Error writing user data: " + e.getMessage());
             return false;
         }
     }
-    
-    private String[] parseCSVLine(String line) {
-        List<String> tokens = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                tokens.add(sb.toString());
-                sb = new StringBuilder();
-            } else {
-                sb.append(c);
-            }
-        }
-        
-        tokens.add(sb.toString());
-        return tokens.toArray(new String[0]);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.motorph.payroll.dao;
+
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
+import com.motorph.payroll.util.DateTimeUtil;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Running attendance totals of every employee for one semi-monthly pay
+ * period, kept up to date as records are stored and removed so that reading
+ * an employee's totals does not revisit the period's records.
+ *
+ * Each employee's totals are an immutable AttendanceTotals replaced in one
+ * atomic step, so a reader always sees a whole record counted or not at all.
+ * Changes to the same employee must not race with each other, which the DAO's
+ * employee locks ensure.
+ */
+class PayPeriodAccumulator {
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final int startDay;
+    private final int endDay;
+    private final ConcurrentMap<Integer, AttendanceTotals> totals = new ConcurrentHashMap<>();
+
+    /**
+     * Create empty totals for the pay period containing a date
+     * @param date Any day of the pay period
+     */
+    PayPeriodAccumulator(LocalDate date) {
+        this.startDate = DateTimeUtil.getPayPeriodStart(date);
+        this.endDate = DateTimeUtil.getPayPeriodEnd(date);
+        this.startDay = (int) startDate.toEpochDay();
+        this.endDay = (int) endDate.toEpochDay();
+    }
+
+    LocalDate getStartDate() {
+        return startDate;
+    }
+
+    LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Check whether a date falls in this pay period
+     * @param date The date
+     * @return True if the date is in the period
+     */
+    boolean covers(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        return epochDay >= startDay && epochDay <= endDay;
+    }
+
+    /**
+     * Account for a record replacing another for the same employee and date
+     * @param previous The record that was stored, or null if there was none
+     * @param current The record now stored, or null if it was removed
+     */
+    void replace(Attendance previous, Attendance current) {
+        if (previous != null && inPeriod(previous)) {
+            totals.compute(previous.getEmployeeId(), (id, sum) -> add(id, sum, previous, -1));
+        }
+        if (current != null && inPeriod(current)) {
+            totals.compute(current.getEmployeeId(), (id, sum) -> add(id, sum, current, 1));
+        }
+    }
+
+    /**
+     * Get an employee's totals for the period
+     * @param employeeId The employee ID
+     * @return The totals, all zero if the employee has no records in the period
+     */
+    AttendanceTotals get(int employeeId) {
+        AttendanceTotals sum = totals.get(employeeId);
+        return sum != null ? sum : new AttendanceTotals(employeeId, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Sum an employee's records directly, for periods that are not accumulated
+     * @param employeeId The employee ID
+     * @param records The employee's records in the period
+     * @return The totals of the records
+     */
+    static AttendanceTotals sum(int employeeId, Collection<Attendance> records) {
+        AttendanceTotals sum = null;
+        for (Attendance attendance : records) {
+            sum = add(employeeId, sum, attendance, 1);
+        }
+        return sum != null ? sum : new AttendanceTotals(employeeId, 0, 0, 0, 0, 0, 0);
+    }
+
+    private boolean inPeriod(Attendance attendance) {
+        return attendance.getEpochDay() >= startDay && attendance.getEpochDay() <= endDay;
+    }
+
+    // Helper method to add (sign 1) or take away (sign -1) one record; an
+    // employee left with no records is dropped from the map
+    private static AttendanceTotals add(int employeeId, AttendanceTotals sum, Attendance attendance, int sign) {
+        int daysRecorded = sign;
+        int daysPresent = attendance.isComplete() ? sign : 0;
+        int daysLate = attendance.isComplete() && attendance.isLate() ? sign : 0;
+        if (sum != null) {
+            daysRecorded += sum.getDaysRecorded();
+            daysPresent += sum.getDaysPresent();
+            daysLate += sum.getDaysLate();
+        }
+        if (daysRecorded <= 0) {
+            return null;
+        }
+
+        long workedMinutes = sign * (long) attendance.getWorkedMinutes();
+        long lateMinutes = sign * (long) attendance.getLateMinutes();
+        long overtimeMinutes = sign * (long) attendance.getOvertimeMinutes();
+        if (sum != null) {
+            workedMinutes += sum.getWorkedMinutes();
+            lateMinutes += sum.getLateMinutes();
+            overtimeMinutes += sum.getOvertimeMinutes();
+        }
+        return new AttendanceTotals(employeeId, daysRecorded, daysPresent, daysLate,
+            workedMinutes, lateMinutes, overtimeMinutes);
+    }
+}
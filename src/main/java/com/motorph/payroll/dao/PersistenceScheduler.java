@@ -0,0 +1,131 @@
+package com.motorph.payroll.dao;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Groups save requests so that a burst of changes is written once.
+ *
+ * requestSave() marks the data as changed and returns at once. The first
+ * request after a save starts a window; when it ends, one background save
+ * covers every request made meanwhile. Requests that arrive while a save is
+ * running are covered by the next one.
+ *
+ * flush() writes outstanding requests on the calling thread, for points where
+ * the data must be on disk before going on, such as logging out. saveNow()
+ * saves even if nothing was requested, for changes made without requestSave().
+ */
+public class PersistenceScheduler {
+    private final String name;
+    private final BooleanSupplier save;
+    private final long windowMillis;
+    private final ScheduledExecutorService executor;
+    // Serializes saves, so a flush waits for a background save in progress
+    private final Object saveLock = new Object();
+    private final AtomicBoolean saveRequested = new AtomicBoolean();
+    // Guarded by this
+    private ScheduledFuture<?> pendingSave;
+    private boolean closed;
+
+    /**
+     * Create a scheduler with its own background thread
+     * @param name Names the thread and error messages, e.g. "attendance"
+     * @param save Writes the data; returns false if the write failed
+     * @param windowMillis How long to gather requests before saving
+     */
+    public PersistenceScheduler(String name, BooleanSupplier save, long windowMillis) {
+        this.name = name;
+        this.save = save;
+        this.windowMillis = windowMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, name + "-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ask for the data to be saved soon, without waiting for it
+     */
+    public void requestSave() {
+        saveRequested.set(true);
+        synchronized (this) {
+            if (closed) {
+                // No background thread any more; save right away
+                flush();
+            } else if (pendingSave == null) {
+                pendingSave = executor.schedule(this::runPendingSave, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Save now if any save was requested and not yet done, and wait for it
+     * @return False if the save failed; the request stays outstanding
+     */
+    public boolean flush() {
+        synchronized (saveLock) {
+            if (!saveRequested.getAndSet(false)) {
+                return true;
+            }
+            return runSave();
+        }
+    }
+
+    /**
+     * Save now whether or not a save was requested, and wait for it
+     * @return False if the save failed
+     */
+    public boolean saveNow() {
+        synchronized (saveLock) {
+            saveRequested.set(false);
+            return runSave();
+        }
+    }
+
+    /**
+     * Save outstanding requests and stop the background thread. Later
+     * requests save on the calling thread.
+     * @return False if the final save failed
+     */
+    public boolean close() {
+        synchronized (this) {
+            closed = true;
+            if (pendingSave != null) {
+                pendingSave.cancel(false);
+                pendingSave = null;
+            }
+        }
+        executor.shutdown();
+        return flush();
+    }
+
+    private void runPendingSave() {
+        synchronized (this) {
+            pendingSave = null;
+        }
+        if (!flush()) {
+            // Try again after another window
+            requestSave();
+        }
+    }
+
+    // Run the save, keeping the request outstanding if it fails. Called with saveLock held.
+    private boolean runSave() {
+        boolean saved;
+        try {
+            saved = save.getAsBoolean();
+        } catch (RuntimeException e) {
+            System.err.println("Error saving " + name + " data: " + e.getMessage());
+            saved = false;
+        }
+        if (!saved) {
+            saveRequested.set(true);
+        }
+        return saved;
+    }
+}
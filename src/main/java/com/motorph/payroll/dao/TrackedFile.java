@@ -0,0 +1,268 @@
+package com.motorph.payroll.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Remembers how much of a CSV file a DAO has read, and a checksum of those
+ * bytes, so that later changes to the file can be classified as rows
+ * appended to the end or as a rewrite of earlier content.
+ */
+class TrackedFile {
+    enum Change { UNCHANGED, APPENDED, REWRITTEN }
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Path path;
+    // Bytes [0, length) have been read; checksum and lineCount describe them
+    private long length;
+    private CRC32C checksum = new CRC32C();
+    private int lineCount;
+    private boolean endsWithNewline = true;
+    // Set by assumeRead: the content was loaded from elsewhere and is only
+    // read back, and compared with this checksum, once check() needs it
+    private boolean pending;
+    private long pendingModified;
+    private long pendingChecksum;
+
+    TrackedFile(String filePath) {
+        this.path = Paths.get(filePath);
+    }
+
+    /**
+     * Read the whole file and track it as the content the DAO has loaded
+     * @return The file's bytes
+     * @throws IOException If the file cannot be read
+     */
+    byte[] readAll() throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        reset();
+        accept(ByteBuffer.wrap(content));
+        return content;
+    }
+
+    /**
+     * Map the whole file into memory in chunks that end at line breaks, and
+     * track it as the content the DAO has loaded
+     * @param chunkSize The size to aim for; each chunk runs on to the end of its last line
+     * @return Read-only views of the chunks, in file order
+     * @throws IOException If the file cannot be mapped
+     */
+    List<ByteBuffer> mapAll(long chunkSize) throws IOException {
+        reset();
+        List<ByteBuffer> chunks = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = findLineEnd(channel, Math.min(start + chunkSize, size), size);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                accept(chunk.duplicate());
+                chunks.add(chunk);
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Track content the DAO loaded without reading the file, such as from a
+     * binary snapshot. The file is only read once a later check() finds that
+     * its length or modification time has changed.
+     * @param length The length of the loaded content in bytes
+     * @param modified The file's modification time when the content was loaded
+     * @param checksum The CRC32C of the loaded content
+     */
+    void assumeRead(long length, long modified, long checksum) {
+        reset();
+        this.length = length;
+        this.pending = true;
+        this.pendingModified = modified;
+        this.pendingChecksum = checksum;
+    }
+
+    /**
+     * Get the CRC32C of the tracked content
+     * @return The checksum
+     */
+    long getChecksum() {
+        return pending ? pendingChecksum : checksum.getValue();
+    }
+
+    /**
+     * Compare the file on disk with the tracked content
+     * @return UNCHANGED if the tracked bytes are all the file holds, APPENDED
+     *         if only bytes after them were added, otherwise REWRITTEN
+     * @throws IOException If the file cannot be read
+     */
+    Change check() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            // Tools that replace the file may delete it first; wait for the new one
+            return Change.UNCHANGED;
+        }
+
+        long size = Files.size(path);
+        if (pending) {
+            if (size == length && Files.getLastModifiedTime(path).toMillis() == pendingModified) {
+                return Change.UNCHANGED;
+            }
+            if (size < length || !readPending()) {
+                return Change.REWRITTEN;
+            }
+        } else if (size < length || !prefixMatches()) {
+            return Change.REWRITTEN;
+        }
+        if (size == length) {
+            return Change.UNCHANGED;
+        }
+        if (!endsWithNewline && !appendedStartsNewLine()) {
+            // The last tracked line was extended rather than new lines added
+            return Change.REWRITTEN;
+        }
+        return Change.APPENDED;
+    }
+
+    /**
+     * Read the complete lines added after the tracked content and track them.
+     * A trailing line without a line break is left for a later call.
+     * @return The appended bytes, possibly empty
+     * @throws IOException If the file cannot be read
+     */
+    byte[] readAppended() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= length) {
+                return new byte[0];
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - length));
+            while (buffer.hasRemaining() && channel.read(buffer, length + buffer.position()) > 0) {
+                // Keep reading until the tail is complete
+            }
+
+            byte[] tail = buffer.array();
+            int end = buffer.position();
+            while (end > 0 && tail[end - 1] != '\n') {
+                end--;
+            }
+
+            accept(ByteBuffer.wrap(tail, 0, end));
+            return end == tail.length ? tail : Arrays.copyOf(tail, end);
+        }
+    }
+
+    /**
+     * Get the number of lines in the tracked content, which is the line number
+     * just before the first appended line
+     * @return The tracked line count
+     */
+    int getLineCount() {
+        return lineCount;
+    }
+
+    private void reset() {
+        length = 0;
+        checksum = new CRC32C();
+        lineCount = 0;
+        endsWithNewline = true;
+        pending = false;
+    }
+
+    private void accept(ByteBuffer bytes) {
+        int count = bytes.remaining();
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\n') {
+                lineCount++;
+            }
+        }
+        if (count > 0) {
+            endsWithNewline = bytes.get(bytes.limit() - 1) == '\n';
+        }
+        checksum.update(bytes);
+        length += count;
+    }
+
+    // Find the end of the line holding position: just past its '\n', or size for the last line
+    private static long findLineEnd(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    // Check that the first length bytes of the file are still the tracked ones
+    private boolean prefixMatches() throws IOException {
+        CRC32C current = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, Math.max(length, 1)));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    return false;
+                }
+                buffer.flip();
+                current.update(buffer);
+                position += read;
+            }
+        }
+        return current.getValue() == checksum.getValue();
+    }
+
+    // Read the content assumed by assumeRead and check that it is still the
+    // loaded one; the line count and checksum are then tracked as usual
+    private boolean readPending() throws IOException {
+        long expectedLength = length;
+        long expectedChecksum = pendingChecksum;
+        reset();
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, Math.max(expectedLength, 1)));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (length < expectedLength) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), expectedLength - length));
+                if (channel.read(buffer, length) <= 0) {
+                    return false;
+                }
+                buffer.flip();
+                accept(buffer);
+            }
+        }
+        return checksum.getValue() == expectedChecksum;
+    }
+
+    private boolean appendedStartsNewLine() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer first = ByteBuffer.allocate(1);
+            if (channel.read(first, length) != 1) {
+                return false;
+            }
+            byte value = first.get(0);
+            return value == '\n' || value == '\r';
+        }
+    }
+}
@@ -3,75 +3,133 @@ package com.motorph.payroll.model;
 import com.motorph.payroll.util.AppConstants;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Represents an attendance record in the system
+ *
+ * The record is stored compactly: the date as an epoch day, punch times as
+ * minute-of-day values and the derived hours as precomputed minute counters.
+ * Punch times are kept to the minute, the same precision as the CSV files.
  */
 public class Attendance {
-    private int employeeId;
-    private LocalDate date;
-    private LocalTime timeIn;
-    private LocalTime timeOut;
-    private double totalHours;
-    private double overtimeHours;
-    private double lateMinutes;
-    
-    private static final LocalTime STANDARD_START_TIME = LocalTime.of(
-        AppConstants.STANDARD_START_HOUR, AppConstants.STANDARD_START_MINUTE);
-    private static final LocalTime STANDARD_END_TIME = LocalTime.of(
-        AppConstants.STANDARD_END_HOUR, AppConstants.STANDARD_END_MINUTE);
+    /** Minute-of-day value used when a punch time is not recorded */
+    public static final short NO_TIME = -1;
+
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int LUNCH_BREAK_THRESHOLD_MINUTES = 300; // 5 hours
+    private static final int LUNCH_BREAK_MINUTES = 60;
+    private static final int STANDARD_START_MINUTE =
+        AppConstants.STANDARD_START_HOUR * MINUTES_PER_HOUR + AppConstants.STANDARD_START_MINUTE;
+    private static final int STANDARD_END_MINUTE =
+        AppConstants.STANDARD_END_HOUR * MINUTES_PER_HOUR + AppConstants.STANDARD_END_MINUTE;
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
+    private final int employeeId;
+    private final int epochDay;
+    private final short timeInMinute;
+    private final short timeOutMinute;
+    private final short workedMinutes;
+    private final short lateMinutes;
+    private final short overtimeMinutes;
+
     public Attendance(int employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
+        this(employeeId, (int) date.toEpochDay(), toMinuteOfDay(timeIn), toMinuteOfDay(timeOut));
+    }
+
+    private Attendance(int employeeId, int epochDay, int timeInMinute, int timeOutMinute) {
         this.employeeId = employeeId;
-        this.date = date;
-        this.timeIn = timeIn;
-        this.timeOut = timeOut;
-        calculateWorkingHours();
-    }
-
-    private void calculateWorkingHours() {
-        if (timeIn != null && timeOut != null) {
-            // Calculate total duration
-            Duration workDuration = Duration.between(timeIn, timeOut);
-            
-            // Subtract 1 hour for lunch break if worked more than 5 hours
-            double totalMinutes = workDuration.toMinutes();
-            if (totalMinutes > 300) { // 5 hours = 300 minutes
-                totalMinutes -= 60; // Subtract lunch break
-            }
-            
-            this.totalHours = totalMinutes / 60.0;
-
-            // Calculate late minutes
-            if (timeIn.isAfter(STANDARD_START_TIME)) {
-                this.lateMinutes = Duration.between(STANDARD_START_TIME, timeIn).toMinutes();
-            }
-
-            // Calculate overtime (after standard end time)
-            if (timeOut.isAfter(STANDARD_END_TIME)) {
-                this.overtimeHours = Duration.between(STANDARD_END_TIME, timeOut).toMinutes() / 60.0;
-            }
+        this.epochDay = epochDay;
+        this.timeInMinute = (short) timeInMinute;
+        this.timeOutMinute = (short) timeOutMinute;
+
+        this.workedMinutes = (short) calculateWorkedMinutes(timeInMinute, timeOutMinute);
+        this.lateMinutes = (short) calculateLateMinutes(timeInMinute, timeOutMinute);
+        this.overtimeMinutes = (short) calculateOvertimeMinutes(timeInMinute, timeOutMinute);
+    }
+
+    /**
+     * Create an attendance record from primitive values without building
+     * LocalDate or LocalTime objects
+     * @param employeeId The employee ID
+     * @param epochDay The date as a count of days since 1970-01-01
+     * @param timeInMinute Minutes since midnight of the time in, or NO_TIME
+     * @param timeOutMinute Minutes since midnight of the time out, or NO_TIME
+     * @return The attendance record
+     */
+    public static Attendance ofMinutes(int employeeId, int epochDay, int timeInMinute, int timeOutMinute) {
+        checkMinuteOfDay(timeInMinute);
+        checkMinuteOfDay(timeOutMinute);
+        return new Attendance(employeeId, epochDay, timeInMinute, timeOutMinute);
+    }
+
+    /**
+     * Calculate the minutes worked in a day, less the lunch break
+     * @param timeInMinute Minutes since midnight of the time in, or NO_TIME
+     * @param timeOutMinute Minutes since midnight of the time out, or NO_TIME
+     * @return The minutes worked, or 0 if the day is incomplete
+     */
+    public static int calculateWorkedMinutes(int timeInMinute, int timeOutMinute) {
+        if (timeInMinute == NO_TIME || timeOutMinute == NO_TIME) {
+            return 0;
+        }
+        // Subtract 1 hour for lunch break if worked more than 5 hours
+        int totalMinutes = timeOutMinute - timeInMinute;
+        if (totalMinutes > LUNCH_BREAK_THRESHOLD_MINUTES) {
+            totalMinutes -= LUNCH_BREAK_MINUTES;
         }
+        return totalMinutes;
+    }
+
+    /**
+     * Calculate the minutes an employee arrived after the standard start time
+     * @param timeInMinute Minutes since midnight of the time in, or NO_TIME
+     * @param timeOutMinute Minutes since midnight of the time out, or NO_TIME
+     * @return The late minutes, or 0 if the day is incomplete
+     */
+    public static int calculateLateMinutes(int timeInMinute, int timeOutMinute) {
+        if (timeInMinute == NO_TIME || timeOutMinute == NO_TIME) {
+            return 0;
+        }
+        return Math.max(timeInMinute - STANDARD_START_MINUTE, 0);
+    }
+
+    /**
+     * Calculate the minutes an employee stayed after the standard end time
+     * @param timeInMinute Minutes since midnight of the time in, or NO_TIME
+     * @param timeOutMinute Minutes since midnight of the time out, or NO_TIME
+     * @return The overtime minutes, or 0 if the day is incomplete
+     */
+    public static int calculateOvertimeMinutes(int timeInMinute, int timeOutMinute) {
+        if (timeInMinute == NO_TIME || timeOutMinute == NO_TIME) {
+            return 0;
+        }
+        return Math.max(timeOutMinute - STANDARD_END_MINUTE, 0);
     }
 
     // Getters
     public int getEmployeeId() { return employeeId; }
-    public LocalDate getDate() { return date; }
-    public LocalTime getTimeIn() { return timeIn; }
-    public LocalTime getTimeOut() { return timeOut; }
-    public double getTotalHours() { return totalHours; }
-    public double getOvertimeHours() { return overtimeHours; }
+    public LocalDate getDate() { return LocalDate.ofEpochDay(epochDay); }
+    public LocalTime getTimeIn() { return toLocalTime(timeInMinute); }
+    public LocalTime getTimeOut() { return toLocalTime(timeOutMinute); }
+    public double getTotalHours() { return workedMinutes / 60.0; }
+    public double getOvertimeHours() { return overtimeMinutes / 60.0; }
     public double getLateMinutes() { return lateMinutes; }
+
+    // Primitive getters for code that aggregates or indexes many records;
+    // getDate() builds a new LocalDate on each call
+    public int getEpochDay() { return epochDay; }
+    public int getTimeInMinute() { return timeInMinute; }
+    public int getTimeOutMinute() { return timeOutMinute; }
+    public int getWorkedMinutes() { return workedMinutes; }
+    public int getOvertimeMinutes() { return overtimeMinutes; }
     
     public String getFormattedTimeIn() {
-        return timeIn != null ? timeIn.format(TIME_FORMATTER) : "N/A";
+        return timeInMinute != NO_TIME ? getTimeIn().format(TIME_FORMATTER) : "N/A";
     }
     
     public String getFormattedTimeOut() {
-        return timeOut != null ? timeOut.format(TIME_FORMATTER) : "N/A";
+        return timeOutMinute != NO_TIME ? getTimeOut().format(TIME_FORMATTER) : "N/A";
     }
     
     /**
@@ -79,7 +137,7 @@ public class Attendance {
      * @return true if both time in and time out are recorded
      */
     public boolean isComplete() {
-        return timeIn != null && timeOut != null;
+        return timeInMinute != NO_TIME && timeOutMinute != NO_TIME;
     }
     
     /**
@@ -87,7 +145,7 @@ public class Attendance {
      * @return true if the employee arrived after standard start time
      */
     public boolean isLate() {
-        return timeIn != null && timeIn.isAfter(STANDARD_START_TIME);
+        return timeInMinute != NO_TIME && timeInMinute > STANDARD_START_MINUTE;
     }
     
     /**
@@ -95,7 +153,7 @@ public class Attendance {
      * @return true if the employee left after standard end time
      */
     public boolean hasOvertime() {
-        return timeOut != null && timeOut.isAfter(STANDARD_END_TIME);
+        return timeOutMinute != NO_TIME && timeOutMinute > STANDARD_END_MINUTE;
     }
     
     /**
@@ -103,7 +161,7 @@ public class Attendance {
      * @return the status string
      */
     public String getStatus() {
-        if (timeIn == null || timeOut == null) {
+        if (!isComplete()) {
             return "ABSENT";
         }
         if (isLate()) {
@@ -115,6 +173,24 @@ public class Attendance {
     @Override
     public String toString() {
         return String.format("Attendance{employeeId=%d, date=%s, timeIn=%s, timeOut=%s, totalHours=%.2f, overtimeHours=%.2f}",
-                           employeeId, date, getFormattedTimeIn(), getFormattedTimeOut(), totalHours, overtimeHours);
+                           employeeId, getDate(), getFormattedTimeIn(), getFormattedTimeOut(), getTotalHours(), getOvertimeHours());
+    }
+
+    // Helper method to convert a time to minutes since midnight, dropping seconds
+    private static int toMinuteOfDay(LocalTime time) {
+        return time != null ? time.getHour() * MINUTES_PER_HOUR + time.getMinute() : NO_TIME;
+    }
+
+    // Helper method to convert minutes since midnight back to a time
+    private static LocalTime toLocalTime(short minuteOfDay) {
+        return minuteOfDay != NO_TIME
+            ? LocalTime.of(minuteOfDay / MINUTES_PER_HOUR, minuteOfDay % MINUTES_PER_HOUR)
+            : null;
+    }
+
+    private static void checkMinuteOfDay(int minuteOfDay) {
+        if (minuteOfDay != NO_TIME && (minuteOfDay < 0 || minuteOfDay >= 24 * MINUTES_PER_HOUR)) {
+            throw new IllegalArgumentException("Invalid minute of day: " + minuteOfDay);
+        }
     }
-}
\ No newline at end of file
+}
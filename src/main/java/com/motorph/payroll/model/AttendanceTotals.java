@@ -0,0 +1,45 @@
+package com.motorph.payroll.model;
+
+/**
+ * Attendance figures for one employee summed over a period.
+ * Only complete days (both time in and time out recorded) count as present
+ * and add worked, late and overtime minutes; daysRecorded also counts days
+ * with only one punch, as payroll does.
+ */
+public class AttendanceTotals {
+    private int employeeId;
+    private int daysRecorded;
+    private int daysPresent;
+    private int daysLate;
+    private long workedMinutes;
+    private long lateMinutes;
+    private long overtimeMinutes;
+
+    public AttendanceTotals(int employeeId, int daysRecorded, int daysPresent, int daysLate,
+                            long workedMinutes, long lateMinutes, long overtimeMinutes) {
+        this.employeeId = employeeId;
+        this.daysRecorded = daysRecorded;
+        this.daysPresent = daysPresent;
+        this.daysLate = daysLate;
+        this.workedMinutes = workedMinutes;
+        this.lateMinutes = lateMinutes;
+        this.overtimeMinutes = overtimeMinutes;
+    }
+
+    public double getTotalHours() {
+        return workedMinutes / 60.0;
+    }
+
+    public double getOvertimeHours() {
+        return overtimeMinutes / 60.0;
+    }
+
+    // Getters
+    public int getEmployeeId() { return employeeId; }
+    public int getDaysRecorded() { return daysRecorded; }
+    public int getDaysPresent() { return daysPresent; }
+    public int getDaysLate() { return daysLate; }
+    public long getWorkedMinutes() { return workedMinutes; }
+    public long getLateMinutes() { return lateMinutes; }
+    public long getOvertimeMinutes() { return overtimeMinutes; }
+}
@@ -0,0 +1,27 @@
+package com.motorph.payroll.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a payroll run over many employees.
+ * Successful payslips and per-employee errors are both kept in the order
+ * the employees were submitted.
+ */
+public class PayrollBatchResult {
+    private List<PayrollSummary> payrollSummaries;
+    private Map<Integer, String> errors;
+
+    public PayrollBatchResult(List<PayrollSummary> payrollSummaries, Map<Integer, String> errors) {
+        this.payrollSummaries = payrollSummaries;
+        this.errors = errors;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    // Getters
+    public List<PayrollSummary> getPayrollSummaries() { return payrollSummaries; }
+    public Map<Integer, String> getErrors() { return errors; }
+}
@@ -17,4 +17,6 @@ public interface AttendanceService {
     boolean hasCompletedAttendanceForToday(int employeeId);
     Attendance getTodayAttendance(int employeeId);
     boolean saveAttendance();
+    void requestSave();
+    boolean flushSaves();
 }
\ No newline at end of file
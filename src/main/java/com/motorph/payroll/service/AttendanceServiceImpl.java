@@ -1,16 +1,37 @@
 package com.motorph.payroll.service;
 
 import com.motorph.payroll.dao.AttendanceDao;
+import com.motorph.payroll.dao.PersistenceScheduler;
 import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.util.MetricsRegistry;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 public class AttendanceServiceImpl implements AttendanceService {
+    private static final MetricsRegistry.Timer CLOCK_IN_TIMER = MetricsRegistry.getDefault().timer("attendance.clockIn");
+    private static final MetricsRegistry.Timer CLOCK_OUT_TIMER = MetricsRegistry.getDefault().timer("attendance.clockOut");
+    // Punches that changed nothing: a second clock-in, or a clock-out without a clock-in
+    private static final MetricsRegistry.Counter IGNORED_PUNCHES =
+        MetricsRegistry.getDefault().counter("attendance.punches.ignored");
+    
     private AttendanceDao attendanceDao;
+    // Groups requested saves into background writes; null to save on each request
+    private PersistenceScheduler saveScheduler;
     
     public AttendanceServiceImpl(AttendanceDao attendanceDao) {
+        this(attendanceDao, null);
+    }
+    
+    /**
+     * Create an attendance service whose requested saves are grouped
+     * @param attendanceDao The attendance DAO
+     * @param saveScheduler The scheduler that saves attendanceDao, or null
+     */
+    public AttendanceServiceImpl(AttendanceDao attendanceDao, PersistenceScheduler saveScheduler) {
         this.attendanceDao = attendanceDao;
+        this.saveScheduler = saveScheduler;
     }
     
     @Override
@@ -31,53 +52,84 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public void addAttendance(int employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
         Attendance attendance = new Attendance(employeeId, date, timeIn, timeOut);
-        attendanceDao.addAttendance(attendance);
+        if (!date.equals(LocalDate.now())) {
+            attendanceDao.addAttendance(attendance);
+            return;
+        }
+        changeTodayRecord(employeeId, date, current -> {
+            attendanceDao.addAttendance(attendance);
+            return attendance;
+        });
     }
     
     @Override
     public void updateAttendance(int employeeId, LocalDate date, LocalTime timeIn, LocalTime timeOut) {
         Attendance attendance = new Attendance(employeeId, date, timeIn, timeOut);
-        attendanceDao.updateAttendance(attendance);
+        if (!date.equals(LocalDate.now())) {
+            attendanceDao.updateAttendance(attendance);
+            return;
+        }
+        changeTodayRecord(employeeId, date, current -> {
+            attendanceDao.updateAttendance(attendance);
+            return attendance;
+        });
     }
     
     @Override
     public void deleteAttendance(int employeeId, LocalDate date) {
-        attendanceDao.deleteAttendance(employeeId, date);
+        if (!date.equals(LocalDate.now())) {
+            attendanceDao.deleteAttendance(employeeId, date);
+            return;
+        }
+        changeTodayRecord(employeeId, date, current -> {
+            attendanceDao.deleteAttendance(employeeId, date);
+            return null;
+        });
     }
     
     @Override
     public void clockIn(int employeeId) {
+        long start = System.nanoTime();
         LocalDate today = LocalDate.now();
         LocalTime currentTime = LocalTime.now();
-        
-        // Check if employee already has an attendance record for today
-        Attendance todayRecord = getTodayAttendance(employeeId);
-        
-        if (todayRecord == null) {
-            // No record for today, create new record with time in
-            addAttendance(employeeId, today, currentTime, null);
-        } else if (todayRecord.getTimeOut() == null) {
-            // Record exists but no time out - do nothing, can't clock in twice
-        } else {
-            // Complete record already exists - do nothing
+    
+        try {
+            changeTodayRecord(employeeId, today, todayRecord -> {
+                if (todayRecord != null) {
+                    // Already clocked in today, with or without a time out - do nothing
+                    IGNORED_PUNCHES.increment();
+                    return todayRecord;
+                }
+                // No record for today, create new record with time in
+                Attendance attendance = new Attendance(employeeId, today, currentTime, null);
+                attendanceDao.addAttendance(attendance);
+                return attendance;
+            });
+        } finally {
+            CLOCK_IN_TIMER.recordSince(start);
         }
     }
     
     @Override
     public void clockOut(int employeeId) {
+        long start = System.nanoTime();
         LocalDate today = LocalDate.now();
         LocalTime currentTime = LocalTime.now();
-        
-        // Check if employee already has an attendance record for today
-        Attendance todayRecord = getTodayAttendance(employeeId);
-        
-        if (todayRecord == null) {
-            // No record for today - can't clock out without clocking in
-        } else if (todayRecord.getTimeOut() == null) {
-            // Record exists but no time out, update record with time out
-            updateAttendance(employeeId, today, todayRecord.getTimeIn(), currentTime);
-        } else {
-            // Complete record already exists - do nothing
+    
+        try {
+            changeTodayRecord(employeeId, today, todayRecord -> {
+                if (todayRecord == null || todayRecord.getTimeOut() != null) {
+                    // Can't clock out without clocking in, or twice - do nothing
+                    IGNORED_PUNCHES.increment();
+                    return todayRecord;
+                }
+                // Record exists but no time out, update record with time out
+                Attendance attendance = new Attendance(employeeId, today, todayRecord.getTimeIn(), currentTime);
+                attendanceDao.updateAttendance(attendance);
+                return attendance;
+            });
+        } finally {
+            CLOCK_OUT_TIMER.recordSince(start);
         }
     }
     
@@ -90,14 +142,56 @@ public class AttendanceServiceImpl implements AttendanceService {
     @Override
     public Attendance getTodayAttendance(int employeeId) {
         LocalDate today = LocalDate.now();
-        return getAttendanceByDateRange(employeeId, today, today)
-            .stream()
-            .findFirst()
-            .orElse(null);
+        Attendance cached = attendanceDao.getTodayRecordCache().get(employeeId);
+        if (cached != null && cached.getEpochDay() == today.toEpochDay()) {
+            return cached;
+        }
+        return changeTodayRecord(employeeId, today, UnaryOperator.identity());
     }
     
     @Override
     public boolean saveAttendance() {
+        if (saveScheduler != null) {
+            // Also covers any requested save still waiting for its window
+            return saveScheduler.saveNow();
+        }
         return attendanceDao.saveAttendance();
     }
+    
+    @Override
+    public void requestSave() {
+        if (saveScheduler != null) {
+            saveScheduler.requestSave();
+        } else {
+            attendanceDao.saveAttendance();
+        }
+    }
+    
+    @Override
+    public boolean flushSaves() {
+        return saveScheduler == null || saveScheduler.flush();
+    }
+    
+    // Helper method to change an employee's record for today atomically. The
+    // change runs while the employee's entry in the DAO's cache of today's
+    // records is locked, so two punches from different terminals, through any
+    // services over the DAO, can't both see no record. Entries for earlier
+    // days are ignored. It gets the current record, or null, and returns the
+    // new one.
+    private Attendance changeTodayRecord(int employeeId, LocalDate date, UnaryOperator<Attendance> change) {
+        return attendanceDao.getTodayRecordCache().compute(employeeId, (id, cached) -> {
+            Attendance current = cached != null && cached.getEpochDay() == date.toEpochDay()
+                ? cached
+                : findAttendance(employeeId, date);
+            return change.apply(current);
+        });
+    }
+    
+    // Helper method to read one employee's record for a date from the DAO
+    private Attendance findAttendance(int employeeId, LocalDate date) {
+        return getAttendanceByDateRange(employeeId, date, date)
+            .stream()
+            .findFirst()
+            .orElse(null);
+    }
 }
\ No newline at end of file
@@ -1,14 +1,48 @@
 package com.motorph.payroll.service;
 
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollBatchResult;
 import com.motorph.payroll.model.PayrollSummary;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 public interface PayrollService {
     PayrollSummary calculatePayroll(Employee employee, LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Calculate the payslip so far for the semi-monthly pay period containing
+     * a date, from the attendance DAO's period totals. The summary has the
+     * same figures as calculatePayroll over the period but no attendance records.
+     * @param employee The employee
+     * @param date Any day of the pay period, usually today
+     * @return The payslip for the period to date
+     */
+    PayrollSummary calculatePayPeriodPreview(Employee employee, LocalDate date);
+    
+    List<PayrollSummary> calculateBatchPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate);
+    PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate);
+    
+    /**
+     * Calculate payslips in parallel, reporting progress and stopping early on request
+     * @param employees The employees to pay
+     * @param startDate The first day of the period
+     * @param endDate The last day of the period
+     * @param cancelled Checked before each employee; once true, employees not yet
+     *        started are left out of both the payslips and the errors
+     * @param progress Called from the calculating threads with the number of
+     *        employees finished so far; calls may arrive out of order, so a
+     *        lower count can follow a higher one
+     * @return The payslips and errors of the employees that were calculated
+     */
+    PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate,
+                                                BooleanSupplier cancelled, IntConsumer progress);
+    
     double calculateSSSDeduction(double basicSalary);
     double calculatePhilhealthDeduction(double basicSalary);
     double calculatePagibigDeduction(double basicSalary);
     double calculateWithholdingTax(double taxableIncome);
+    double[] calculateWithholdingTax(double[] taxableIncomes);
     boolean savePayslipToFile(PayrollSummary payslip, String fileName);
 }
\ No newline at end of file
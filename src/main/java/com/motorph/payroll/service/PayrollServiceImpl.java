@@ -2,29 +2,215 @@ package com.motorph.payroll.service;
 
 import com.motorph.payroll.dao.AttendanceDao;
 import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollBatchResult;
 import com.motorph.payroll.model.PayrollSummary;
 import com.motorph.payroll.util.AppConstants;
+import com.motorph.payroll.util.DateTimeUtil;
+import com.motorph.payroll.util.MetricsRegistry;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 public class PayrollServiceImpl implements PayrollService {
+    private static final MetricsRegistry.Timer CALCULATE_TIMER = MetricsRegistry.getDefault().timer("payroll.calculate");
+    private static final MetricsRegistry.Timer PREVIEW_TIMER = MetricsRegistry.getDefault().timer("payroll.preview");
+    private static final MetricsRegistry.Timer BATCH_TIMER = MetricsRegistry.getDefault().timer("payroll.calculateBatch");
+    private static final MetricsRegistry.Timer SAVE_PAYSLIP_TIMER = MetricsRegistry.getDefault().timer("payroll.savePayslip");
+    private static final MetricsRegistry.Counter SAVE_PAYSLIP_FAILURES =
+        MetricsRegistry.getDefault().counter("payroll.savePayslip.failures");
+    
     private AttendanceDao attendanceDao;
+    private int parallelism;
+    // Runs calculateParallelPayroll's tasks; created on first use unless given
+    private ExecutorService executor;
+    private WithholdingTaxTable taxTable;
     
     public PayrollServiceImpl(AttendanceDao attendanceDao) {
+        this(attendanceDao, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a payroll service
+     * @param attendanceDao The source of attendance records
+     * @param parallelism The number of threads used by calculateParallelPayroll
+     */
+    public PayrollServiceImpl(AttendanceDao attendanceDao, int parallelism) {
+        this(attendanceDao, parallelism, WithholdingTaxTable.getDefault());
+    }
+    
+    /**
+     * Create a payroll service
+     * @param attendanceDao The source of attendance records
+     * @param parallelism The number of threads used by calculateParallelPayroll
+     * @param taxTable The withholding-tax brackets to apply
+     */
+    public PayrollServiceImpl(AttendanceDao attendanceDao, int parallelism, WithholdingTaxTable taxTable) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.attendanceDao = attendanceDao;
+        this.parallelism = parallelism;
+        this.taxTable = taxTable;
+    }
+    
+    /**
+     * Create a payroll service whose parallel calculations run on an executor
+     * owned by the caller, who also shuts it down
+     * @param attendanceDao The source of attendance records
+     * @param executor Runs one task per employee in calculateParallelPayroll
+     * @param taxTable The withholding-tax brackets to apply
+     */
+    public PayrollServiceImpl(AttendanceDao attendanceDao, ExecutorService executor, WithholdingTaxTable taxTable) {
         this.attendanceDao = attendanceDao;
+        this.executor = executor;
+        this.taxTable = taxTable;
     }
     
     @Override
     public PayrollSummary calculatePayroll(Employee employee, LocalDate startDate, LocalDate endDate) {
-        // Get attendance records for the specified period
-        List<Attendance> employeeAttendance = attendanceDao.getAttendanceByDateRange(
-            employee.getEmployeeId(), startDate, endDate);
+        long start = System.nanoTime();
+        try {
+            // Get attendance records for the specified period
+            List<Attendance> employeeAttendance = attendanceDao.getAttendanceByDateRange(
+                employee.getEmployeeId(), startDate, endDate);
+            
+            return buildPayrollSummary(employee, employeeAttendance, startDate, endDate);
+        } finally {
+            CALCULATE_TIMER.recordSince(start);
+        }
+    }
+    
+    @Override
+    public PayrollSummary calculatePayPeriodPreview(Employee employee, LocalDate date) {
+        long start = System.nanoTime();
+        try {
+            // The DAO keeps running totals of the period, so nothing is summed here
+            AttendanceTotals totals = attendanceDao.getPayPeriodTotals(employee.getEmployeeId(), date);
+            return buildPayrollSummary(employee, new ArrayList<>(), totals.getTotalHours(), totals.getOvertimeHours(),
+                totals.getLateMinutes(), totals.getDaysRecorded(),
+                DateTimeUtil.getPayPeriodStart(date), DateTimeUtil.getPayPeriodEnd(date));
+        } finally {
+            PREVIEW_TIMER.recordSince(start);
+        }
+    }
+    
+    @Override
+    public List<PayrollSummary> calculateBatchPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate) {
+        long start = System.nanoTime();
+        try {
+            return buildBatchPayroll(employees, startDate, endDate);
+        } finally {
+            BATCH_TIMER.recordSince(start);
+        }
+    }
+    
+    private List<PayrollSummary> buildBatchPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate) {
+        Map<Integer, List<Attendance>> attendanceByEmployee = groupAttendanceByEmployee(startDate, endDate);
+        
+        // Results are returned in the same order as the employees
+        List<PayrollSummary> payrollSummaries = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            List<Attendance> employeeAttendance = attendanceByEmployee.getOrDefault(
+                employee.getEmployeeId(), new ArrayList<>());
+            payrollSummaries.add(buildPayrollSummary(employee, employeeAttendance, startDate, endDate));
+        }
+        return payrollSummaries;
+    }
+    
+    @Override
+    public PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate) {
+        return calculateParallelPayroll(employees, startDate, endDate, () -> false, finished -> { });
+    }
+    
+    @Override
+    public PayrollBatchResult calculateParallelPayroll(List<Employee> employees, LocalDate startDate, LocalDate endDate,
+                                                       BooleanSupplier cancelled, IntConsumer progress) {
+        Map<Integer, List<Attendance>> attendanceByEmployee = groupAttendanceByEmployee(startDate, endDate);
+        
+        // Each slot is written by exactly one task, so results keep the input order
+        int count = employees.size();
+        PayrollSummary[] summaries = new PayrollSummary[count];
+        String[] errors = new String[count];
+        AtomicInteger finished = new AtomicInteger();
+        
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int slot = i;
+            tasks.add(() -> {
+                // Once cancelled, the employees not yet started are skipped
+                if (cancelled.getAsBoolean()) {
+                    return null;
+                }
+                Employee employee = employees.get(slot);
+                try {
+                    List<Attendance> employeeAttendance = attendanceByEmployee.getOrDefault(
+                        employee.getEmployeeId(), new ArrayList<>());
+                    summaries[slot] = buildPayrollSummary(employee, employeeAttendance, startDate, endDate);
+                } catch (Exception e) {
+                    // A failure for one employee must not stop the others
+                    errors[slot] = e.getMessage() != null ? e.getMessage() : e.toString();
+                }
+                progress.accept(finished.incrementAndGet());
+                return null;
+            });
+        }
         
+        try {
+            // Returns once every task has run or been skipped
+            getExecutor().invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Payroll calculation was interrupted", e);
+        }
+        
+        List<PayrollSummary> payrollSummaries = new ArrayList<>(count);
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (summaries[i] != null) {
+                payrollSummaries.add(summaries[i]);
+            } else if (errors[i] != null) {
+                failures.put(employees.get(i).getEmployeeId(), errors[i]);
+            }
+        }
+        return new PayrollBatchResult(payrollSummaries, failures);
+    }
+    
+    // Helper method to get the executor, starting this service's pool on first
+    // use; its worker threads are daemons that end when idle, so it is not shut down
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ForkJoinPool(parallelism);
+        }
+        return executor;
+    }
+    
+    // Fetch the period once and group it by employee in a single pass
+    private Map<Integer, List<Attendance>> groupAttendanceByEmployee(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, List<Attendance>> attendanceByEmployee = new HashMap<>();
+        for (Attendance attendance : attendanceDao.getAttendanceByDateRange(startDate, endDate)) {
+            attendanceByEmployee.computeIfAbsent(attendance.getEmployeeId(), id -> new ArrayList<>())
+                .add(attendance);
+        }
+        return attendanceByEmployee;
+    }
+    
+    private PayrollSummary buildPayrollSummary(Employee employee, List<Attendance> employeeAttendance,
+                                               LocalDate startDate, LocalDate endDate) {
         // Calculate total hours worked and overtime
         double totalHours = 0;
         double overtimeHours = 0;
@@ -36,7 +222,14 @@ public class PayrollServiceImpl implements PayrollService {
             overtimeHours += attendance.getOvertimeHours();
             lateMinutes += attendance.getLateMinutes();
         }
-
+        
+        return buildPayrollSummary(employee, employeeAttendance, totalHours, overtimeHours, lateMinutes, daysPresent,
+            startDate, endDate);
+    }
+    
+    private PayrollSummary buildPayrollSummary(Employee employee, List<Attendance> employeeAttendance,
+                                               double totalHours, double overtimeHours, double lateMinutes,
+                                               int daysPresent, LocalDate startDate, LocalDate endDate) {
         // Calculate gross pay
         double dailyRate = employee.getBasicSalary() / AppConstants.WORKING_DAYS_PER_MONTH;
         double regularPay = dailyRate * daysPresent;
@@ -101,30 +294,30 @@ public class PayrollServiceImpl implements PayrollService {
     
     @Override
     public double calculateWithholdingTax(double taxableIncome) {
-        // Annualize the income
-        double annualizedIncome = taxableIncome * AppConstants.PAY_PERIODS_PER_YEAR;
-        double annualTax;
-        
-        if (annualizedIncome <= AppConstants.TAX_BRACKET_1) {
-            return 0;
-        } else if (annualizedIncome <= AppConstants.TAX_BRACKET_2) {
-            annualTax = (annualizedIncome - AppConstants.TAX_BRACKET_1) * 0.20;
-        } else if (annualizedIncome <= AppConstants.TAX_BRACKET_3) {
-            annualTax = 30000 + (annualizedIncome - AppConstants.TAX_BRACKET_2) * 0.25;
-        } else if (annualizedIncome <= AppConstants.TAX_BRACKET_4) {
-            annualTax = 130000 + (annualizedIncome - AppConstants.TAX_BRACKET_3) * 0.30;
-        } else if (annualizedIncome <= AppConstants.TAX_BRACKET_5) {
-            annualTax = 490000 + (annualizedIncome - AppConstants.TAX_BRACKET_4) * 0.32;
-        } else {
-            annualTax = 2410000 + (annualizedIncome - AppConstants.TAX_BRACKET_5) * 0.35;
-        }
-        
-        // Return the tax for this pay period
-        return annualTax / AppConstants.PAY_PERIODS_PER_YEAR;
+        // Annualized against the tax table, returned for this pay period
+        return taxTable.withholdingTax(taxableIncome);
+    }
+    
+    @Override
+    public double[] calculateWithholdingTax(double[] taxableIncomes) {
+        return taxTable.withholdingTax(taxableIncomes);
     }
     
     @Override
     public boolean savePayslipToFile(PayrollSummary payslip, String fileName) {
+        long start = System.nanoTime();
+        try {
+            boolean saved = writePayslip(payslip, fileName);
+            if (!saved) {
+                SAVE_PAYSLIP_FAILURES.increment();
+            }
+            return saved;
+        } finally {
+            SAVE_PAYSLIP_TIMER.recordSince(start);
+        }
+    }
+    
+    private boolean writePayslip(PayrollSummary payslip, String fileName) {
         String projectPath = System.getProperty("user.dir");
         String filePath = projectPath + File.separator + fileName;
         
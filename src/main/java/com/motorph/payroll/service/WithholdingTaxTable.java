@@ -0,0 +1,207 @@
+package com.motorph.payroll.service;
+
+import com.motorph.payroll.util.AppConstants;
+import com.motorph.payroll.util.CsvReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Annual withholding-tax brackets, read from a CSV of
+ * "Annual Income Over,Base Tax,Marginal Rate" rows: income above a bracket's
+ * lower bound pays the base tax plus the marginal rate on the excess.
+ *
+ * The default table is the withholding-tax.csv resource, or the file named
+ * by the system property motorph.withholdingTaxFile, so a new tax year is a
+ * new file rather than a code change.
+ *
+ * Per-period taxes are found by annualizing the taxable income over
+ * AppConstants.PAY_PERIODS_PER_YEAR periods.
+ */
+public class WithholdingTaxTable {
+    private static final String DEFAULT_RESOURCE = "/withholding-tax.csv";
+    private static final String FILE_PROPERTY = "motorph.withholdingTaxFile";
+    // Bases may be rounded to the centavo, so a table whose lines meet within
+    // this amount still counts as continuous
+    private static final double CONTINUITY_TOLERANCE = 0.01;
+
+    private final double[] lowerBounds;
+    private final double[] baseTaxes;
+    private final double[] rates;
+    // True when the tax is continuous and the rates never fall, so the tax of
+    // any income is the largest of the bracket lines
+    private final boolean progressive;
+
+    /**
+     * Create a table from its columns
+     * @param lowerBounds The annual income each bracket starts above, ascending from 0
+     * @param baseTaxes The annual tax at each lower bound
+     * @param rates The marginal rate of each bracket, from 0 to 1
+     * @throws IllegalArgumentException If the brackets are not a valid table
+     */
+    public WithholdingTaxTable(double[] lowerBounds, double[] baseTaxes, double[] rates) {
+        if (lowerBounds.length == 0 || baseTaxes.length != lowerBounds.length || rates.length != lowerBounds.length) {
+            throw new IllegalArgumentException("Tax table needs the same, non-zero number of bounds, bases and rates");
+        }
+        if (lowerBounds[0] != 0) {
+            throw new IllegalArgumentException("First tax bracket must start at 0: " + lowerBounds[0]);
+        }
+
+        boolean progressive = true;
+        for (int i = 0; i < lowerBounds.length; i++) {
+            if (i > 0 && !(lowerBounds[i] > lowerBounds[i - 1])) {
+                throw new IllegalArgumentException("Tax brackets must be in ascending order: " + lowerBounds[i]);
+            }
+            if (!(baseTaxes[i] >= 0) || !(rates[i] >= 0 && rates[i] <= 1)) {
+                throw new IllegalArgumentException("Invalid base tax or rate in bracket over " + lowerBounds[i]);
+            }
+            if (i > 0) {
+                double lineAtBound = baseTaxes[i - 1] + (lowerBounds[i] - lowerBounds[i - 1]) * rates[i - 1];
+                progressive &= rates[i] >= rates[i - 1]
+                    && Math.abs(lineAtBound - baseTaxes[i]) <= CONTINUITY_TOLERANCE;
+            }
+        }
+
+        this.lowerBounds = lowerBounds.clone();
+        this.baseTaxes = baseTaxes.clone();
+        this.rates = rates.clone();
+        this.progressive = progressive;
+    }
+
+    /**
+     * Get the table the application uses, loaded on first use
+     * @return The default table
+     */
+    public static WithholdingTaxTable getDefault() {
+        return DefaultTable.INSTANCE;
+    }
+
+    /**
+     * Read a table from CSV text with a header line
+     * @param reader The CSV text
+     * @return The table
+     * @throws IOException If the text cannot be read
+     * @throws IllegalArgumentException If a row or the brackets are invalid
+     */
+    public static WithholdingTaxTable read(Reader reader) throws IOException {
+        double[][] columns = new double[3][8];
+        int count = 0;
+
+        try (CsvReader csv = new CsvReader(reader)) {
+            // Skip header
+            csv.next();
+            while (csv.next()) {
+                if (count == columns[0].length) {
+                    for (int column = 0; column < columns.length; column++) {
+                        columns[column] = Arrays.copyOf(columns[column], count * 2);
+                    }
+                }
+                try {
+                    for (int column = 0; column < columns.length; column++) {
+                        columns[column][count] = Double.parseDouble(csv.getField(column).trim());
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(
+                        "Invalid tax bracket at line " + csv.getLineNumber() + ": " + e.getMessage(), e);
+                }
+                count++;
+            }
+        }
+
+        return new WithholdingTaxTable(Arrays.copyOf(columns[0], count),
+            Arrays.copyOf(columns[1], count), Arrays.copyOf(columns[2], count));
+    }
+
+    /**
+     * Calculate the tax on an annual income with a binary search of the brackets
+     * @param annualIncome The annual taxable income
+     * @return The annual tax; 0 for income of 0 or less
+     */
+    public double annualTax(double annualIncome) {
+        if (annualIncome <= 0) {
+            return 0;
+        }
+
+        // Find the last bracket whose lower bound is below the income
+        int low = 0;
+        int high = lowerBounds.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lowerBounds[mid] < annualIncome) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return baseTaxes[low] + (annualIncome - lowerBounds[low]) * rates[low];
+    }
+
+    /**
+     * Calculate the withholding tax of one pay period
+     * @param taxableIncome The taxable income of the period
+     * @return The tax for the period
+     */
+    public double withholdingTax(double taxableIncome) {
+        return annualTax(taxableIncome * AppConstants.PAY_PERIODS_PER_YEAR) / AppConstants.PAY_PERIODS_PER_YEAR;
+    }
+
+    /**
+     * Calculate the withholding tax of one pay period for many incomes at
+     * once. For a progressive table each bracket is applied to every income
+     * in a loop without branches, which the JIT can vectorize; the results
+     * match withholdingTax(double) to within rounding.
+     * @param taxableIncomes The taxable income of each employee for the period
+     * @return The tax for the period of each income, in the same order
+     */
+    public double[] withholdingTax(double[] taxableIncomes) {
+        int count = taxableIncomes.length;
+        double[] taxes = new double[count];
+
+        if (!progressive) {
+            for (int i = 0; i < count; i++) {
+                taxes[i] = withholdingTax(taxableIncomes[i]);
+            }
+            return taxes;
+        }
+
+        // The tax is the highest of the bracket lines, and never below 0
+        double periods = AppConstants.PAY_PERIODS_PER_YEAR;
+        for (int bracket = 0; bracket < lowerBounds.length; bracket++) {
+            double lowerBound = lowerBounds[bracket];
+            double baseTax = baseTaxes[bracket];
+            double rate = rates[bracket];
+            for (int i = 0; i < count; i++) {
+                taxes[i] = Math.max(taxes[i], baseTax + (taxableIncomes[i] * periods - lowerBound) * rate);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            taxes[i] /= periods;
+        }
+        return taxes;
+    }
+
+    // Loads the default table the first time it is used
+    private static class DefaultTable {
+        static final WithholdingTaxTable INSTANCE = load();
+
+        private static WithholdingTaxTable load() {
+            String filePath = System.getProperty(FILE_PROPERTY);
+            try (InputStream in = filePath != null
+                    ? Files.newInputStream(Paths.get(filePath))
+                    : WithholdingTaxTable.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Missing withholding tax table: " + DEFAULT_RESOURCE);
+                }
+                return read(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading withholding tax table: " + e.getMessage(), e);
+            }
+        }
+    }
+}
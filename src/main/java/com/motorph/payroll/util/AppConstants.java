@@ -28,18 +28,20 @@ public class AppConstants {
     public static final int STANDARD_END_HOUR = 17;
     public static final int STANDARD_END_MINUTE = 0;
     
-    // Tax brackets (annual)
-    public static final double TAX_BRACKET_1 = 250000.0; // 0%
-    public static final double TAX_BRACKET_2 = 400000.0; // 20%
-    public static final double TAX_BRACKET_3 = 800000.0; // 25%
-    public static final double TAX_BRACKET_4 = 2000000.0; // 30%
-    public static final double TAX_BRACKET_5 = 8000000.0; // 32%
+    // Tax brackets are read from withholding-tax.csv by WithholdingTaxTable
     
     // Pay periods per year
     public static final int PAY_PERIODS_PER_YEAR = 24;
     
+    // Default port of the clock-in HTTP server for time terminals
+    public static final int CLOCK_IN_SERVER_PORT = 8085;
+    // Default address it listens on; loopback only, so terminals on other
+    // machines need an explicit host such as 0.0.0.0
+    public static final String CLOCK_IN_SERVER_HOST = "127.0.0.1";
+    
     // File naming patterns
     public static final String PAYSLIP_FILENAME_PATTERN = "Payslip_%d_%s_%s.txt";
+    public static final String METRICS_FILENAME_PATTERN = "Metrics_%s.txt";
     
     // Application info
     public static final String APP_NAME = "MotorPH Payroll System";
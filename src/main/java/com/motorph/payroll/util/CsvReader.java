@@ -0,0 +1,345 @@
+package com.motorph.payroll.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Streaming CSV reader shared by the file-based DAOs.
+ *
+ * Records are read one at a time from a buffered character stream into a
+ * reusable buffer, so walking a large file does not allocate per line.
+ * Quoted fields may contain commas, line breaks and escaped quotes ("")
+ * as described in RFC 4180. Blank lines are skipped.
+ *
+ * Typical use:
+ * <pre>
+ * try (CsvReader csv = new CsvReader(new FileReader(file))) {
+ *     while (csv.next()) {
+ *         int id = csv.getInt(0);
+ *         String name = csv.getField(1);
+ *     }
+ * }
+ * </pre>
+ */
+public class CsvReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_STREAM = -1;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    // Characters of the current record, with start/end offsets per field
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStarts = new int[32];
+    private int[] fieldEnds = new int[32];
+    private int fieldCount;
+
+    private int lineNumber;
+    private int nextLineNumber = 1;
+
+    // The current record seen as a CharSequence, so fields can be parsed in place
+    private final CharSequence recordChars = new CharSequence() {
+        @Override
+        public int length() {
+            return recordLength;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return record[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(record, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(record, 0, recordLength);
+        }
+    };
+
+    /**
+     * Create a reader over a character stream with the default buffer size
+     * @param reader The source of CSV text
+     */
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a reader over a character stream
+     * @param reader The source of CSV text
+     * @param bufferSize The number of characters to read from the source at a time
+     */
+    public CsvReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Advance to the next non-blank record
+     * @return True if a record was read, false at the end of the stream
+     * @throws IOException If the underlying stream cannot be read
+     */
+    public boolean next() throws IOException {
+        while (readRecord()) {
+            if (!isBlankRecord()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of fields in the current record
+     * @return The field count
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Get a field of the current record, with surrounding quotes removed
+     * @param index The zero-based field index
+     * @return The field value, or an empty string if the record has no such field
+     */
+    public String getField(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        return new String(record, fieldStarts[index], fieldEnds[index] - fieldStarts[index]);
+    }
+
+    /**
+     * Parse a field of the current record as an int without creating a String
+     * @param index The zero-based field index
+     * @return The parsed value
+     * @throws NumberFormatException If the field is not a valid integer
+     */
+    public int getInt(int index) {
+        if (index >= fieldCount) {
+            throw new NumberFormatException("Missing field " + index);
+        }
+
+        int start = fieldStarts[index];
+        int end = fieldEnds[index];
+
+        // Ignore surrounding whitespace like String.trim()
+        while (start < end && record[start] <= ' ') {
+            start++;
+        }
+        while (end > start && record[end - 1] <= ' ') {
+            end--;
+        }
+
+        boolean negative = start < end && record[start] == '-';
+        if (negative || (start < end && record[start] == '+')) {
+            start++;
+        }
+        if (start == end || end - start > 10) {
+            throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getField(index) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a field of the current record as a MM/dd/yyyy date without
+     * creating a String
+     * @param index The zero-based field index
+     * @return The date as days since 01/01/1970, or DateTimeUtil.UNPARSEABLE
+     *         if the field is missing or not a plain MM/dd/yyyy date
+     */
+    public int getEpochDay(int index) {
+        if (index >= fieldCount) {
+            return DateTimeUtil.UNPARSEABLE;
+        }
+        return DateTimeUtil.parseEpochDay(recordChars, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Parse a field of the current record as an H:mm or HH:mm time without
+     * creating a String
+     * @param index The zero-based field index
+     * @return Minutes since midnight, -1 if the field is missing or blank, or
+     *         DateTimeUtil.UNPARSEABLE if it is not a plain H:mm or HH:mm time
+     */
+    public int getMinuteOfDay(int index) {
+        if (index >= fieldCount) {
+            return -1;
+        }
+        return DateTimeUtil.parseMinuteOfDay(recordChars, fieldStarts[index], fieldEnds[index]);
+    }
+
+    /**
+     * Copy the fields of the current record into a new array
+     * @return An array of fields
+     */
+    public String[] toArray() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = getField(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Get the line number on which the current record starts
+     * @return The one-based line number in the source
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parse a single CSV line with proper handling of quoted fields
+     * @param line The CSV line to parse
+     * @return An array of fields
+     */
+    public static String[] parseLine(String line) {
+        try (CsvReader csv = new CsvReader(new StringReader(line), Math.max(line.length(), 1))) {
+            return csv.readRecord() ? csv.toArray() : new String[] { "" };
+        } catch (IOException e) {
+            // StringReader does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Read the next physical record, which may span lines inside quotes
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        lineNumber = nextLineNumber;
+
+        int c = read();
+        if (c == END_OF_STREAM) {
+            return false;
+        }
+
+        int fieldStart = 0;
+        boolean inQuotes = false;
+
+        while (c != END_OF_STREAM) {
+            char ch = (char) c;
+
+            if (inQuotes) {
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        // Escaped quote inside a quoted field
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        nextLineNumber++;
+                    }
+                    append(ch);
+                }
+            } else if (ch == '"') {
+                inQuotes = true;
+            } else if (ch == ',') {
+                endField(fieldStart);
+                fieldStart = recordLength;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r' && peek() == '\n') {
+                    read();
+                }
+                nextLineNumber++;
+                break;
+            } else {
+                append(ch);
+            }
+
+            c = read();
+        }
+
+        endField(fieldStart);
+        return true;
+    }
+
+    private boolean isBlankRecord() {
+        if (fieldCount != 1) {
+            return false;
+        }
+        for (int i = fieldStarts[0]; i < fieldEnds[0]; i++) {
+            if (record[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(char ch) {
+        if (recordLength == record.length) {
+            char[] grown = new char[record.length * 2];
+            System.arraycopy(record, 0, grown, 0, recordLength);
+            record = grown;
+        }
+        record[recordLength++] = ch;
+    }
+
+    private void endField(int fieldStart) {
+        if (fieldCount == fieldStarts.length) {
+            int[] grownStarts = new int[fieldStarts.length * 2];
+            int[] grownEnds = new int[fieldEnds.length * 2];
+            System.arraycopy(fieldStarts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(fieldEnds, 0, grownEnds, 0, fieldCount);
+            fieldStarts = grownStarts;
+            fieldEnds = grownEnds;
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return END_OF_STREAM;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return END_OF_STREAM;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        while (count == 0) {
+            count = reader.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
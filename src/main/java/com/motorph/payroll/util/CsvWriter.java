@@ -0,0 +1,306 @@
+package com.motorph.payroll.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Streaming CSV writer shared by the file-based DAOs; the counterpart of
+ * CsvReader.
+ *
+ * Fields are appended one at a time into a reusable buffer and separated by
+ * commas automatically, so writing a large file does not allocate per row.
+ * The output is the same as the printf formats the DAOs used before:
+ * amounts as "%.2f" in the default locale, dates as MM/dd/yyyy and times
+ * as HH:mm. Values are not escaped; callers quote fields that may contain
+ * commas.
+ *
+ * Typical use:
+ * <pre>
+ * CsvWriter csv = new CsvWriter(writer);
+ * csv.writeLine("Employee #,Date,Time In");
+ * csv.writeInt(10001).writeDate(date).writeTime(480).endRow();
+ * csv.flush();
+ * </pre>
+ */
+public class CsvWriter implements Flushable {
+    private static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    // Amounts below this have an exact cent count that fits in a long, and
+    // are far enough apart that two-decimal values cannot be confused
+    private static final double MAX_FAST_AMOUNT = 1e13;
+
+    private final Writer writer;
+    private final char[] buffer;
+    private int position;
+    private boolean rowStarted;
+
+    // Symbols String.format("%.2f") uses in the default locale
+    private final char zeroDigit;
+    private final char decimalSeparator;
+
+    /**
+     * Create a writer over a character stream with the default buffer size
+     * @param writer The destination of the CSV text
+     */
+    public CsvWriter(Writer writer) {
+        this(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create a writer over a character stream
+     * @param writer The destination of the CSV text
+     * @param bufferSize The number of characters to gather before writing to the destination
+     */
+    public CsvWriter(Writer writer, int bufferSize) {
+        this.writer = writer;
+        this.buffer = new char[Math.max(bufferSize, 32)];
+
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+    }
+
+    /**
+     * Write a whole line as is, ended with the platform line separator like
+     * println. Used for header lines.
+     * @param line The text of the line
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeLine(String line) throws IOException {
+        append(line);
+        append(System.lineSeparator());
+        rowStarted = false;
+        return this;
+    }
+
+    /**
+     * Write a text field as is; null is written as "null" like printf's %s
+     * @param value The field value
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeText(String value) throws IOException {
+        startField();
+        append(value);
+        return this;
+    }
+
+    /**
+     * Write a text field wrapped in double quotes
+     * @param value The field value
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeQuoted(String value) throws IOException {
+        startField();
+        append('"');
+        append(value);
+        append('"');
+        return this;
+    }
+
+    /**
+     * Write an empty field
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeEmpty() throws IOException {
+        startField();
+        return this;
+    }
+
+    /**
+     * Write an int field without creating a String
+     * @param value The field value
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeInt(int value) throws IOException {
+        startField();
+        ensureCapacity(11);
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        appendDigits(value < 0 ? -(long) value : value, 1, '0');
+        return this;
+    }
+
+    /**
+     * Write an amount with two decimals, as String.format("%.2f") does in the
+     * default locale. Values with at most two decimals, which is every amount
+     * the application stores, are written without creating a String.
+     * @param value The field value
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeAmount(double value) throws IOException {
+        startField();
+
+        double magnitude = Math.abs(value);
+        long cents = Math.round(magnitude * 100);
+        if (magnitude < MAX_FAST_AMOUNT && cents / 100.0 == magnitude) {
+            // The value is the double nearest to a whole number of cents, so
+            // rounding it to two decimals gives exactly that number.
+            // Math.copySign keeps -0.0 as "-0.00" like String.format.
+            ensureCapacity(24);
+            if (Math.copySign(1.0, value) < 0) {
+                buffer[position++] = '-';
+            }
+            appendDigits(cents / 100, 1, zeroDigit);
+            buffer[position++] = decimalSeparator;
+            appendDigits(cents % 100, 2, zeroDigit);
+        } else {
+            // More decimals, NaN or infinite: leave the rounding to Formatter
+            append(String.format("%.2f", value));
+        }
+        return this;
+    }
+
+    /**
+     * Write a date field as MM/dd/yyyy
+     * @param date The date, or null for an empty field
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            return writeEmpty();
+        }
+        return writeDate(date.toEpochDay());
+    }
+
+    /**
+     * Write a date field as MM/dd/yyyy without creating a LocalDate
+     * @param epochDay The date as days since 01/01/1970
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeDate(long epochDay) throws IOException {
+        startField();
+
+        // Howard Hinnant's civil_from_days: eras are 400-year cycles starting
+        // 03/01/0000, and years within an era start in March
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 1 || year > 9999) {
+            // Years the pattern writes with a sign or as year of era
+            append(LocalDate.ofEpochDay(epochDay).format(DateTimeUtil.DATE_FORMATTER));
+            return this;
+        }
+
+        ensureCapacity(10);
+        appendDigits(month, 2, '0');
+        buffer[position++] = '/';
+        appendDigits(day, 2, '0');
+        buffer[position++] = '/';
+        appendDigits(year, 4, '0');
+        return this;
+    }
+
+    /**
+     * Write a time field as HH:mm
+     * @param minuteOfDay Minutes since midnight; a negative value, such as
+     *        Attendance.NO_TIME, writes an empty field
+     * @return This writer
+     * @throws IOException If the destination cannot be written
+     */
+    public CsvWriter writeTime(int minuteOfDay) throws IOException {
+        startField();
+        if (minuteOfDay >= 0) {
+            ensureCapacity(5);
+            appendDigits(minuteOfDay / 60, 2, '0');
+            buffer[position++] = ':';
+            appendDigits(minuteOfDay % 60, 2, '0');
+        }
+        return this;
+    }
+
+    /**
+     * End the current row with a newline
+     * @throws IOException If the destination cannot be written
+     */
+    public void endRow() throws IOException {
+        append('\n');
+        rowStarted = false;
+    }
+
+    /**
+     * Write buffered text to the destination and flush it
+     * @throws IOException If the destination cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        writer.flush();
+    }
+
+    private void startField() throws IOException {
+        if (rowStarted) {
+            append(',');
+        }
+        rowStarted = true;
+    }
+
+    private void append(char ch) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = ch;
+    }
+
+    private void append(String text) throws IOException {
+        if (text == null) {
+            text = "null";
+        }
+
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int count = Math.min(length - start, buffer.length - position);
+            text.getChars(start, start + count, buffer, position);
+            position += count;
+            start += count;
+        }
+    }
+
+    // Append a non-negative number, padded with zeros to at least minDigits
+    private void appendDigits(long value, int minDigits, char zero) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) (zero + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void ensureCapacity(int count) throws IOException {
+        if (buffer.length - position < count) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
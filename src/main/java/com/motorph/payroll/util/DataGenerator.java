@@ -0,0 +1,377 @@
+package com.motorph.payroll.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Generates employees.csv, attendance.csv and user.csv of any size, in the
+ * formats FileEmployeeDao, FileAttendanceDao and FileUserDao read, for
+ * benchmarks and scale tests.
+ *
+ * Every employee is hired before the history starts and works every weekday
+ * of it. On a working day an employee is absent (no row) with the absence
+ * rate; otherwise they clock in between 07:30 and 08:00, or late with the
+ * late rate, and clock out between 16:50 and 17:00, or later with the
+ * overtime rate. Late and overtime minutes follow an exponential
+ * distribution with the given mean.
+ *
+ * The same settings and seed always produce the same files. Rows are
+ * written as they are generated, so the history can be far larger than
+ * memory.
+ *
+ * Run from the command line with:
+ * <pre>
+ * java com.motorph.payroll.util.DataGenerator directory [headcount] [years] [seed]
+ * </pre>
+ */
+public class DataGenerator {
+    public static final String EMPLOYEE_FILE_NAME = "employees.csv";
+    public static final String ATTENDANCE_FILE_NAME = "attendance.csv";
+    public static final String USER_FILE_NAME = "user.csv";
+
+    public static final int FIRST_EMPLOYEE_ID = 10001;
+
+    private static final int STANDARD_START_MINUTE =
+        AppConstants.STANDARD_START_HOUR * 60 + AppConstants.STANDARD_START_MINUTE;
+    private static final int STANDARD_END_MINUTE =
+        AppConstants.STANDARD_END_HOUR * 60 + AppConstants.STANDARD_END_MINUTE;
+    // Punch times stay within the day
+    private static final int LAST_TIME_IN_MINUTE = 12 * 60;
+    private static final int LAST_TIME_OUT_MINUTE = 23 * 60 + 59;
+    // Every employee at a multiple of this index leads a team made of the
+    // next employees and of the leaders at ten times its index
+    private static final int TEAM_SIZE = 10;
+
+    private static final String[] LAST_NAMES = {
+        "Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva", "San Jose", "Romualdez", "Atienza",
+        "Alvaro", "Salcedo", "Lopez", "Farala", "Martinez", "Romero", "Mata", "De Leon", "Gonzales", "Bautista",
+        "Santos", "Del Rosario", "Tolentino", "Mendoza", "Cruz", "Ramos", "Castillo", "Flores", "Dela Cruz"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Manuel", "Antonio", "Bianca Sofia", "Isabella", "Eduard", "Andrea Mae", "Brad", "Alice", "Rosie",
+        "Roderick", "Anthony", "Josie", "Martha", "Leila", "Fredrick", "Christian", "Selena", "Allison", "Cydney",
+        "Mark", "Darlene", "Kolby", "Vella", "Tomas", "Jacklyn", "Percival", "Garfield", "Lizeth", "Carol"
+    };
+    private static final String[] CITIES = {
+        "Makati City", "Quezon City", "Pasig City", "Taguig City", "Manila", "Mandaluyong City", "Cebu City",
+        "Davao City", "Antipolo, Rizal", "Dasmarinas, Cavite"
+    };
+    private static final String[] POSITIONS = {
+        "Customer Service and Relations", "Sales & Marketing", "Supply Chain and Logistics",
+        "Payroll Rank and File", "Accounting Rank and File", "HR Rank and File", "IT Operations and Systems"
+    };
+
+    private final int headcount;
+    private final long seed;
+    private int historyMonths;
+    private LocalDate historyEnd = LocalDate.of(2024, 12, 31);
+    private double lateRate = 0.10;
+    private double meanLateMinutes = 20;
+    private double overtimeRate = 0.15;
+    private double meanOvertimeMinutes = 90;
+    private double absenceRate = 0.03;
+
+    /**
+     * Create a generator with the default distributions
+     * @param headcount The number of employees
+     * @param years The years of attendance history
+     * @param seed The seed of the random values
+     */
+    public DataGenerator(int headcount, int years, long seed) {
+        if (headcount < 1) {
+            throw new IllegalArgumentException("Headcount must be at least 1: " + headcount);
+        }
+        if (years < 0) {
+            throw new IllegalArgumentException("Years of history cannot be negative: " + years);
+        }
+        this.headcount = headcount;
+        this.seed = seed;
+        this.historyMonths = years * 12;
+    }
+
+    /**
+     * Set the length of the history in months instead of whole years
+     * @param months The months of attendance history
+     * @return This generator
+     */
+    public DataGenerator setHistoryMonths(int months) {
+        if (months < 0) {
+            throw new IllegalArgumentException("Months of history cannot be negative: " + months);
+        }
+        this.historyMonths = months;
+        return this;
+    }
+
+    /**
+     * Set the last day of the history; defaults to 12/31/2024
+     * @param historyEnd The last date with attendance
+     * @return This generator
+     */
+    public DataGenerator setHistoryEnd(LocalDate historyEnd) {
+        this.historyEnd = historyEnd;
+        return this;
+    }
+
+    /**
+     * Set how often employees clock in late and by how much
+     * @param rate The share of working days an employee is late, from 0 to 1
+     * @param meanMinutes The average minutes late on those days
+     * @return This generator
+     */
+    public DataGenerator setLateDistribution(double rate, double meanMinutes) {
+        this.lateRate = checkRate(rate);
+        this.meanLateMinutes = checkMean(meanMinutes);
+        return this;
+    }
+
+    /**
+     * Set how often employees work overtime and for how long
+     * @param rate The share of working days an employee stays late, from 0 to 1
+     * @param meanMinutes The average minutes after the standard end time on those days
+     * @return This generator
+     */
+    public DataGenerator setOvertimeDistribution(double rate, double meanMinutes) {
+        this.overtimeRate = checkRate(rate);
+        this.meanOvertimeMinutes = checkMean(meanMinutes);
+        return this;
+    }
+
+    /**
+     * Set how often employees are absent
+     * @param rate The share of working days without attendance, from 0 to 1
+     * @return This generator
+     */
+    public DataGenerator setAbsenceRate(double rate) {
+        this.absenceRate = checkRate(rate);
+        return this;
+    }
+
+    public int getHeadcount() {
+        return headcount;
+    }
+
+    public LocalDate getHistoryStart() {
+        return historyEnd.minusMonths(historyMonths).plusDays(1);
+    }
+
+    public LocalDate getHistoryEnd() {
+        return historyEnd;
+    }
+
+    /**
+     * Write the three data files into a directory, creating it if needed
+     * @param directory The directory of the files
+     * @throws IOException If a file cannot be written
+     */
+    public void generate(String directory) throws IOException {
+        if (!FileUtil.createDirectoryIfNotExists(directory)) {
+            throw new IOException("Cannot create directory: " + directory);
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(directory, EMPLOYEE_FILE_NAME), Charset.defaultCharset())) {
+            writeEmployees(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(directory, ATTENDANCE_FILE_NAME), Charset.defaultCharset())) {
+            writeAttendance(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(directory, USER_FILE_NAME), Charset.defaultCharset())) {
+            writeUsers(writer);
+        }
+    }
+
+    /**
+     * Write the employee CSV
+     * @param writer The destination of the CSV text
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeEmployees(Writer writer) throws IOException {
+        // Employee details have their own random values, so they stay the
+        // same when only the attendance settings change
+        SplittableRandom random = new SplittableRandom(seed);
+        CsvWriter csv = new CsvWriter(writer);
+
+        csv.writeLine("Employee #,Last Name,First Name,Birthday,Address,Phone Number,SSS #,Philhealth #,TIN #,"
+            + "Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,Rice Subsidy,Phone Allowance,"
+            + "Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate");
+
+        for (int i = 0; i < headcount; i++) {
+            String status = pickStatus(random);
+            String position;
+            String supervisor;
+            double basicSalary;
+            if (i == 0) {
+                status = "Regular";
+                position = "Chief Executive Officer";
+                supervisor = "N/A";
+                basicSalary = 90000;
+            } else if (i % TEAM_SIZE == 0) {
+                // Team leaders report to the leader of the team above
+                position = "Team Leader";
+                supervisor = getSupervisorName(i / TEAM_SIZE / TEAM_SIZE * TEAM_SIZE);
+                basicSalary = 50000 + random.nextInt(100) * 200;
+            } else {
+                position = POSITIONS[random.nextInt(POSITIONS.length)];
+                supervisor = getSupervisorName(i / TEAM_SIZE * TEAM_SIZE);
+                basicSalary = 22000 + random.nextInt(140) * 200;
+            }
+
+            csv.writeInt(FIRST_EMPLOYEE_ID + i)
+               .writeText(getLastName(i))
+               .writeText(getFirstName(i))
+               .writeDate(LocalDate.of(1960 + random.nextInt(42), 1, 1).plusDays(random.nextInt(365)))
+               .writeQuoted((random.nextInt(999) + 1) + " Rizal Street, " + CITIES[random.nextInt(CITIES.length)])
+               .writeText(digits(random, 3) + "-" + digits(random, 3) + "-" + digits(random, 3))
+               .writeText(digits(random, 2) + "-" + digits(random, 7) + "-" + digits(random, 1))
+               .writeText(digits(random, 12))
+               .writeText(digits(random, 3) + "-" + digits(random, 3) + "-" + digits(random, 3) + "-000")
+               .writeText(digits(random, 12))
+               .writeText(status)
+               .writeText(position)
+               .writeQuoted(supervisor)
+               .writeAmount(basicSalary)
+               .writeAmount(1500)
+               .writeAmount(500 + random.nextInt(4) * 500)
+               .writeAmount(500 + random.nextInt(2) * 500)
+               .writeAmount(basicSalary / 2)
+               .writeAmount(Math.round(basicSalary / 21 / 8 * 100) / 100.0)
+               .endRow();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Write the attendance CSV, one day of all employees after another
+     * @param writer The destination of the CSV text
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeAttendance(Writer writer) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        CsvWriter csv = new CsvWriter(writer);
+
+        csv.writeLine("Employee #,Last Name,First Name,Date,Time In,Time Out");
+
+        for (LocalDate date = getHistoryStart(); !date.isAfter(historyEnd); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            long epochDay = date.toEpochDay();
+
+            for (int i = 0; i < headcount; i++) {
+                if (random.nextDouble() < absenceRate) {
+                    continue;
+                }
+
+                int timeIn = random.nextDouble() < lateRate
+                    ? Math.min(STANDARD_START_MINUTE + 1 + exponential(random, meanLateMinutes), LAST_TIME_IN_MINUTE)
+                    : STANDARD_START_MINUTE - random.nextInt(31);
+                int timeOut = random.nextDouble() < overtimeRate
+                    ? Math.min(STANDARD_END_MINUTE + 1 + exponential(random, meanOvertimeMinutes), LAST_TIME_OUT_MINUTE)
+                    : STANDARD_END_MINUTE - random.nextInt(11);
+
+                csv.writeInt(FIRST_EMPLOYEE_ID + i)
+                   .writeEmpty()
+                   .writeEmpty()
+                   .writeDate(epochDay)
+                   .writeTime(timeIn)
+                   .writeTime(timeOut)
+                   .endRow();
+            }
+        }
+        csv.flush();
+    }
+
+    /**
+     * Write the user CSV: the admin account and one account per employee,
+     * with the employee ID as user name and password
+     * @param writer The destination of the CSV text
+     * @throws IOException If the destination cannot be written
+     */
+    public void writeUsers(Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+
+        csv.writeLine("Username,Password,UserType");
+        csv.writeText(AppConstants.ADMIN_USERNAME).writeText(AppConstants.ADMIN_PASSWORD).writeText("admin").endRow();
+        for (int i = 0; i < headcount; i++) {
+            csv.writeInt(FIRST_EMPLOYEE_ID + i).writeInt(FIRST_EMPLOYEE_ID + i).writeText("user").endRow();
+        }
+        csv.flush();
+    }
+
+    /**
+     * Generate data files from the command line
+     * @param args The directory, then optionally the headcount (default 10000),
+     *        the years of history (default 1) and the seed (default 42)
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: DataGenerator directory [headcount] [years] [seed]");
+            System.exit(1);
+        }
+        int headcount = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int years = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+
+        new DataGenerator(headcount, years, seed).generate(args[0]);
+        System.out.println("Generated data for " + headcount + " employees in: " + new File(args[0]).getAbsolutePath());
+    }
+
+    // Helper method to name employees by position, so supervisors can be named without a lookup
+    private static String getLastName(int index) {
+        return LAST_NAMES[index % LAST_NAMES.length];
+    }
+
+    private static String getFirstName(int index) {
+        return FIRST_NAMES[index / LAST_NAMES.length % FIRST_NAMES.length];
+    }
+
+    private static String getSupervisorName(int index) {
+        return getLastName(index) + ", " + getFirstName(index);
+    }
+
+    // Helper method to pick a status: mostly regular employees
+    private static String pickStatus(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return "Regular";
+        } else if (roll < 85) {
+            return "Probationary";
+        } else if (roll < 95) {
+            return "Contractual";
+        }
+        return "Part-Time";
+    }
+
+    // Helper method to make a string of random digits for government numbers
+    private static String digits(SplittableRandom random, int count) {
+        char[] chars = new char[count];
+        for (int i = 0; i < count; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    // Helper method to draw whole minutes from an exponential distribution
+    private static int exponential(SplittableRandom random, double mean) {
+        return (int) Math.min(-mean * Math.log(1 - random.nextDouble()), 24 * 60);
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+        }
+        return rate;
+    }
+
+    private static double checkMean(double mean) {
+        if (!(mean >= 0)) {
+            throw new IllegalArgumentException("Mean minutes cannot be negative: " + mean);
+        }
+        return mean;
+    }
+}
@@ -13,6 +13,11 @@ public class DateTimeUtil {
     public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     public static final DateTimeFormatter LONG_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMMM dd, yyyy");
     
+    /**
+     * Returned by parseEpochDay and parseMinuteOfDay for text not in their fixed form
+     */
+    public static final int UNPARSEABLE = Integer.MIN_VALUE;
+    
     /**
      * Parse a date string in MM/dd/yyyy format
      * @param dateStr The date string to parse
@@ -23,6 +28,12 @@ public class DateTimeUtil {
             return null;
         }
         
+        // Plain MM/dd/yyyy dates do not need the formatter
+        int epochDay = parseEpochDay(dateStr, 0, dateStr.length());
+        if (epochDay != UNPARSEABLE) {
+            return LocalDate.ofEpochDay(epochDay);
+        }
+        
         try {
             return LocalDate.parse(dateStr.trim(), DATE_FORMATTER);
         } catch (DateTimeParseException e) {
@@ -40,6 +51,12 @@ public class DateTimeUtil {
             return null;
         }
         
+        // Plain H:mm and HH:mm times do not need the formatter
+        int minuteOfDay = parseMinuteOfDay(timeStr, 0, timeStr.length());
+        if (minuteOfDay >= 0) {
+            return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+        
         try {
             // Try direct parsing
             return LocalTime.parse(timeStr.trim(), TIME_FORMATTER);
@@ -66,6 +83,77 @@ public class DateTimeUtil {
         }
     }
     
+    /**
+     * Parse a date in exactly MM/dd/yyyy form from part of a character sequence,
+     * without creating objects or throwing. Surrounding whitespace is ignored.
+     * Other forms, and days past the end of the month, are left to DATE_FORMATTER.
+     * @param text The text containing the date
+     * @param start The index of the first character
+     * @param end The index after the last character
+     * @return The date as days since 01/01/1970, or UNPARSEABLE
+     */
+    public static int parseEpochDay(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start != 10 || text.charAt(start + 2) != '/' || text.charAt(start + 5) != '/') {
+            return UNPARSEABLE;
+        }
+        
+        int month = parseDigits(text, start, 2);
+        int day = parseDigits(text, start + 3, 2);
+        int year = parseDigits(text, start + 6, 4);
+        if (month < 1 || month > 12 || year < 1 || day < 1 || day > lengthOfMonth(year, month)) {
+            return UNPARSEABLE;
+        }
+        
+        // Howard Hinnant's days_from_civil, with years starting in March so
+        // that the leap day comes last
+        int marchYear = month <= 2 ? year - 1 : year;
+        int era = marchYear / 400;
+        int yearOfEra = marchYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+    
+    /**
+     * Parse a time in exactly H:mm or HH:mm form from part of a character
+     * sequence, without creating objects or throwing. Surrounding whitespace
+     * is ignored. Other forms are left to parseTime(String).
+     * @param text The text containing the time
+     * @param start The index of the first character
+     * @param end The index after the last character
+     * @return Minutes since midnight, -1 (Attendance.NO_TIME) if the text is
+     *         blank, or UNPARSEABLE
+     */
+    public static int parseMinuteOfDay(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return -1;
+        }
+        
+        int length = end - start;
+        if ((length != 4 && length != 5) || text.charAt(end - 3) != ':') {
+            return UNPARSEABLE;
+        }
+        
+        int hour = parseDigits(text, start, length - 3);
+        int minute = parseDigits(text, end - 2, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return UNPARSEABLE;
+        }
+        return hour * 60 + minute;
+    }
+    
     /**
      * Get the first day of the current month
      * @return The first day of the current month
@@ -118,4 +206,50 @@ public class DateTimeUtil {
     public static LocalDate getSecondHalfEnd() {
         return getLastDayOfCurrentMonth();
     }
+    
+    /**
+     * Get the first day of the semi-monthly pay period containing a date
+     * @param date The date
+     * @return The 1st or the 16th of the date's month
+     */
+    public static LocalDate getPayPeriodStart(LocalDate date) {
+        return date.withDayOfMonth(date.getDayOfMonth() <= 15 ? 1 : 16);
+    }
+    
+    /**
+     * Get the last day of the semi-monthly pay period containing a date
+     * @param date The date
+     * @return The 15th or the last day of the date's month
+     */
+    public static LocalDate getPayPeriodEnd(LocalDate date) {
+        return date.withDayOfMonth(date.getDayOfMonth() <= 15 ? 15 : date.lengthOfMonth());
+    }
+    
+    // Read count ASCII digits; returns -1 if any character is not a digit
+    private static int parseDigits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leapYear = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
 }
\ No newline at end of file
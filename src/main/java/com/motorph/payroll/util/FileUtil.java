@@ -1,10 +1,13 @@
 package com.motorph.payroll.util;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 /**
  * Utility class for file operations
@@ -21,10 +24,15 @@ public class FileUtil {
         List<String> lines = new ArrayList<>();
         File file = new File(filePath);
         
-        try (Scanner scanner = new Scanner(file)) {
-            while (scanner.hasNextLine()) {
-                lines.add(scanner.nextLine());
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
             }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
         
         return lines;
@@ -67,29 +75,6 @@ public class FileUtil {
      * @return An array of fields
      */
     public static String[] parseCSVLine(String line) {
-        List<String> tokens = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                // Toggle the inQuotes flag
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                // If we're not in quotes, add the current token to the list
-                tokens.add(sb.toString());
-                sb = new StringBuilder();
-            } else {
-                // Add the character to the current token
-                sb.append(c);
-            }
-        }
-        
-        // Add the last token
-        tokens.add(sb.toString());
-        
-        return tokens.toArray(new String[0]);
+        return CsvReader.parseLine(line);
     }
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package com.motorph.payroll.util;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, histograms and timers for the hot paths of the
+ * application, cheap enough to record on every call.
+ *
+ * Counts and sums are LongAdders, so threads recording at the same time do
+ * not contend on one value. Histograms keep counts in log-linear buckets
+ * like HdrHistogram: eight buckets per power of two, so a percentile is
+ * reported within 12.5% of the recorded value, in a fixed 4 KB per
+ * histogram. Reports read the values without stopping recording, so a
+ * report taken under load may be off by the calls in progress.
+ *
+ * Typical use:
+ * <pre>
+ * private static final MetricsRegistry.Timer LOAD_TIMER = MetricsRegistry.getDefault().timer("attendance.load");
+ *
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ * } finally {
+ *     LOAD_TIMER.recordSince(start);
+ * }
+ * </pre>
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final DateTimeFormatter REPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm:ss");
+
+    private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Get the registry the application records into
+     * @return The application-wide registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get a counter, creating it on first use
+     * @param name The name of the counter
+     * @return The counter
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Counter counter(String name) {
+        return getOrCreate(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Get a histogram, creating it on first use
+     * @param name The name of the histogram
+     * @return The histogram
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Histogram histogram(String name) {
+        return getOrCreate(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Get a timer, creating it on first use
+     * @param name The name of the timer
+     * @return The timer
+     * @throws IllegalArgumentException If the name is used by another kind of metric
+     */
+    public Timer timer(String name) {
+        return getOrCreate(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Clear the values of every metric; the metrics stay registered
+     */
+    public void reset() {
+        for (Object metric : metrics.values()) {
+            if (metric instanceof Counter) {
+                ((Counter) metric).reset();
+            } else {
+                ((Histogram) metric).reset();
+            }
+        }
+    }
+
+    /**
+     * Describe every metric as a text table, sorted by name. Timers are
+     * shown in milliseconds.
+     * @return The report
+     */
+    public String report() {
+        Map<String, Object> sorted = new TreeMap<>(metrics);
+        StringBuilder report = new StringBuilder();
+        report.append("Metrics at ").append(LocalDateTime.now().format(REPORT_TIME_FORMATTER)).append('\n');
+
+        report.append(String.format("%nTimers (ms)%n%-40s %10s %12s %12s %12s %12s %12s%n",
+            "Name", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+            if (entry.getValue() instanceof Timer) {
+                Timer timer = (Timer) entry.getValue();
+                report.append(String.format("%-40s %10d %12.3f %12.3f %12.3f %12.3f %12.3f%n", entry.getKey(),
+                    timer.getCount(), timer.getMean() / 1e6, timer.getPercentile(50) / 1e6,
+                    timer.getPercentile(90) / 1e6, timer.getPercentile(99) / 1e6, timer.getMax() / 1e6));
+            }
+        }
+
+        report.append(String.format("%nHistograms%n%-40s %10s %12s %12s %12s %12s %12s%n",
+            "Name", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+            if (entry.getValue().getClass() == Histogram.class) {
+                Histogram histogram = (Histogram) entry.getValue();
+                report.append(String.format("%-40s %10d %12.1f %12d %12d %12d %12d%n", entry.getKey(),
+                    histogram.getCount(), histogram.getMean(), histogram.getPercentile(50),
+                    histogram.getPercentile(90), histogram.getPercentile(99), histogram.getMax()));
+            }
+        }
+
+        report.append(String.format("%nCounters%n%-40s %10s%n", "Name", "Count"));
+        for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+            if (entry.getValue() instanceof Counter) {
+                report.append(String.format("%-40s %10d%n", entry.getKey(), ((Counter) entry.getValue()).getCount()));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Write the report to a file, replacing its contents
+     * @param filePath The path to the file
+     * @throws IOException If the file cannot be written
+     */
+    public void dump(String filePath) throws IOException {
+        Files.write(Paths.get(filePath), report().getBytes(Charset.defaultCharset()));
+    }
+
+    // Helper method to look up a metric, checking that the name is not taken by another kind
+    private <T> T getOrCreate(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.computeIfAbsent(name, key -> factory.get());
+        if (metric.getClass() != type) {
+            throw new IllegalArgumentException(
+                "Metric " + name + " is a " + metric.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * A count of events, such as rejected punches
+     */
+    public static class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        void reset() {
+            count.reset();
+        }
+    }
+
+    /**
+     * The distribution of non-negative values, such as result sizes.
+     * Negative values are recorded as 0.
+     */
+    public static class Histogram {
+        // Eight buckets per power of two; values below 16 have a bucket each
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = bucketIndex(Long.MAX_VALUE) + 1;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        /**
+         * Record a value
+         * @param value The value
+         */
+        public void record(long value) {
+            value = Math.max(value, 0);
+            buckets.incrementAndGet(bucketIndex(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long total = count.sum();
+            return total > 0 ? (double) sum.sum() / total : 0;
+        }
+
+        /**
+         * Get the value that the given percentage of recorded values are at or below
+         * @param percentile The percentage, from 0 to 100
+         * @return The highest value of the bucket the percentile falls in, at most
+         *         the largest recorded value, or 0 if nothing was recorded
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                total += buckets.get(i);
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), getMax());
+                }
+            }
+            return 0;
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+
+        // Helper method to find the bucket of a value: the position of its
+        // highest bit picks the power of two, the next three bits the bucket
+        private static int bucketIndex(long value) {
+            if (value < 2 * SUB_BUCKET_COUNT) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+        }
+
+        private static long bucketUpperBound(int index) {
+            if (index < 2 * SUB_BUCKET_COUNT) {
+                return index;
+            }
+            int shift = (index >> SUB_BUCKET_BITS) - 1;
+            long top = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+            return (top << shift) + ((1L << shift) - 1);
+        }
+    }
+
+    /**
+     * A histogram of durations in nanoseconds
+     */
+    public static class Timer extends Histogram {
+
+        /**
+         * Record the time elapsed since a start time
+         * @param startNanos The System.nanoTime() when the timed work started
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.motorph.payroll.view.gui;
 import com.motorph.payroll.controller.AttendanceController;
 import com.motorph.payroll.controller.EmployeeController;
 import com.motorph.payroll.controller.PayrollController;
+import com.motorph.payroll.dao.AttendanceDao;
 import com.motorph.payroll.dao.DaoFactory;
 import com.motorph.payroll.model.Attendance;
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollBatchResult;
 import com.motorph.payroll.model.PayrollSummary;
 import com.motorph.payroll.service.AttendanceService;
 import com.motorph.payroll.service.AttendanceServiceImpl;
@@ -16,6 +18,7 @@ import com.motorph.payroll.service.PayrollServiceImpl;
 import com.motorph.payroll.util.AppConstants;
 import com.motorph.payroll.util.DateTimeUtil;
 import com.motorph.payroll.util.ImageHelper;
+import com.motorph.payroll.util.MetricsRegistry;
 import com.motorph.payroll.view.gui.components.DashboardCard;
 import com.motorph.payroll.view.gui.components.GradientPanel;
 import com.motorph.payroll.view.gui.components.ModernButton;
@@ -28,11 +31,13 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AdminDashboard extends JFrame {
 
@@ -54,10 +59,12 @@ public class AdminDashboard extends JFrame {
     }
     
     private void initializeControllers() {
-        // Initialize other controllers
-        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.createEmployeeDao());
-        AttendanceService attendanceService = new AttendanceServiceImpl(DaoFactory.createAttendanceDao());
-        PayrollService payrollService = new PayrollServiceImpl(DaoFactory.createAttendanceDao());
+        // Initialize other controllers; attendance and payroll share one DAO
+        // so payroll sees attendance edits before they are saved
+        AttendanceDao attendanceDao = DaoFactory.getAttendanceDao();
+        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.getEmployeeDao());
+        AttendanceService attendanceService = new AttendanceServiceImpl(attendanceDao, DaoFactory.getAttendanceSaveScheduler());
+        PayrollService payrollService = new PayrollServiceImpl(attendanceDao);
         
         this.attendanceController = new AttendanceController(attendanceService);
         this.payrollController = new PayrollController(payrollService, employeeService);
@@ -1014,45 +1021,172 @@ public class AdminDashboard extends JFrame {
                 JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            int successCount = 0;
-            int errorCount = 0;
-            StringBuilder errorMessages = new StringBuilder();
+            runBulkPayslipGeneration(selectedEmployeeIds, startDate, endDate);
+        }
+    }
 
-            for (Integer employeeId : selectedEmployeeIds) {
-                try {
-                    Employee employee = employeeController.getEmployeeById(employeeId);
-                    PayrollSummary payrollSummary = payrollController.calculatePayroll(employee, startDate, endDate);
-
-                    // Save to file automatically
-                    String fileName = String.format("Payslip_%d_%s_%s.txt",
-                            employeeId,
-                            startDate.format(DateTimeFormatter.ofPattern("MMddyyyy")),
-                            endDate.format(DateTimeFormatter.ofPattern("MMddyyyy")));
-
-                    if (payrollController.savePayslipToFile(payrollSummary, fileName)) {
-                        successCount++;
-                    } else {
+    private void runBulkPayslipGeneration(java.util.List<Integer> selectedEmployeeIds,
+                                          LocalDate startDate, LocalDate endDate) {
+        int total = selectedEmployeeIds.size();
+        AtomicBoolean cancelRequested = new AtomicBoolean(false);
+
+        // Progress dialog shown while payslips are generated in the background
+        JDialog progressDialog = new JDialog(this, "Generating Payslips", true);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+
+        JPanel progressPanel = new JPanel(new BorderLayout(0, 10));
+        progressPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JLabel statusLabel = new JLabel("Calculating payslips for " + total + " employee(s)...");
+        statusLabel.setFont(new Font("Montserrat", Font.PLAIN, 14));
+
+        // Each employee is one step to calculate and one to save
+        JProgressBar progressBar = new JProgressBar(0, total * 2);
+        progressBar.setIndeterminate(true);
+        progressBar.setStringPainted(true);
+
+        ModernButton cancelButton = new ModernButton("Cancel");
+        cancelButton.setPreferredSize(new Dimension(100, 35));
+        cancelButton.setButtonColors(new Color(150, 150, 150), new Color(120, 120, 120));
+        cancelButton.addActionListener(e -> {
+            cancelRequested.set(true);
+            cancelButton.setEnabled(false);
+            statusLabel.setText("Cancelling...");
+        });
+
+        JPanel cancelPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        cancelPanel.add(cancelButton);
+
+        progressPanel.add(statusLabel, BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressPanel.add(cancelPanel, BorderLayout.SOUTH);
+
+        progressDialog.add(progressPanel);
+        progressDialog.setSize(420, 170);
+        progressDialog.setLocationRelativeTo(this);
+
+        SwingWorker<Void, Integer> worker = new SwingWorker<Void, Integer>() {
+            private int successCount = 0;
+            private int errorCount = 0;
+            private int skippedCount = 0;
+            // Highest count shown; calculating threads may publish out of order
+            private int shownProgress = 0;
+            private final StringBuilder errorMessages = new StringBuilder();
+
+            @Override
+            protected Void doInBackground() {
+                // Look up the selected employees
+                java.util.List<Employee> employees = new java.util.ArrayList<>();
+                for (Integer employeeId : selectedEmployeeIds) {
+                    try {
+                        employees.add(employeeController.getEmployeeById(employeeId));
+                    } catch (Exception e) {
                         errorCount++;
-                        errorMessages.append("Failed to save payslip for Employee ").append(employeeId).append("\n");
+                        errorMessages.append("Error for Employee ").append(employeeId).append(": ").append(e.getMessage()).append("\n");
                     }
-                } catch (Exception e) {
+                }
+
+                // Calculate every payslip for the period in parallel, reporting
+                // each employee as it finishes
+                int lookupErrors = errorCount;
+                publish(lookupErrors);
+                PayrollBatchResult batchResult = payrollController.calculateParallelPayroll(employees, startDate, endDate,
+                        cancelRequested::get, calculated -> publish(lookupErrors + calculated));
+                for (java.util.Map.Entry<Integer, String> error : batchResult.getErrors().entrySet()) {
                     errorCount++;
-                    errorMessages.append("Error for Employee ").append(employeeId).append(": ").append(e.getMessage()).append("\n");
+                    errorMessages.append("Error for Employee ").append(error.getKey()).append(": ").append(error.getValue()).append("\n");
+                }
+                // Employees not started before a cancel have neither a payslip nor an error
+                skippedCount = employees.size() - batchResult.getPayrollSummaries().size() - batchResult.getErrors().size();
+
+                int processed = total + errorCount;
+                publish(processed);
+
+                java.util.List<PayrollSummary> payrollSummaries = batchResult.getPayrollSummaries();
+                for (int i = 0; i < payrollSummaries.size(); i++) {
+                    if (cancelRequested.get()) {
+                        skippedCount += payrollSummaries.size() - i;
+                        break;
+                    }
+
+                    PayrollSummary payrollSummary = payrollSummaries.get(i);
+                    int employeeId = payrollSummary.getEmployee().getEmployeeId();
+                    try {
+                        // Save to file automatically
+                        String fileName = String.format("Payslip_%d_%s_%s.txt",
+                                employeeId,
+                                startDate.format(DateTimeFormatter.ofPattern("MMddyyyy")),
+                                endDate.format(DateTimeFormatter.ofPattern("MMddyyyy")));
+
+                        if (payrollController.savePayslipToFile(payrollSummary, fileName)) {
+                            successCount++;
+                        } else {
+                            errorCount++;
+                            errorMessages.append("Failed to save payslip for Employee ").append(employeeId).append("\n");
+                        }
+                    } catch (Exception e) {
+                        errorCount++;
+                        errorMessages.append("Error for Employee ").append(employeeId).append(": ").append(e.getMessage()).append("\n");
+                    }
+
+                    publish(++processed);
+                }
+                return null;
+            }
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                for (int chunk : chunks) {
+                    shownProgress = Math.max(shownProgress, chunk);
+                }
+                int processed = shownProgress;
+                progressBar.setIndeterminate(false);
+                progressBar.setValue(processed);
+                if (!cancelRequested.get()) {
+                    statusLabel.setText(processed <= total
+                            ? "Calculated " + processed + " of " + total + " payslip(s)"
+                            : "Processed " + (processed - total) + " of " + total + " payslip(s)");
                 }
             }
 
-            // Show results
-            String message = String.format("Payslip Generation Complete!\n\nSuccessful: %d\nErrors: %d",
-                    successCount, errorCount);
+            @Override
+            protected void done() {
+                progressDialog.dispose();
 
-            if (errorCount > 0) {
-                message += "\n\nErrors:\n" + errorMessages.toString();
-                JOptionPane.showMessageDialog(this, message, "Generation Results", JOptionPane.WARNING_MESSAGE);
-            } else {
-                message += "\n\nAll payslips saved to project directory.";
-                JOptionPane.showMessageDialog(this, message, "Generation Complete", JOptionPane.INFORMATION_MESSAGE);
+                try {
+                    get();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(AdminDashboard.this,
+                            "Error generating payslips: " + cause.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+
+                // Show results
+                String message = String.format("Payslip Generation %s!\n\nSuccessful: %d\nErrors: %d",
+                        skippedCount > 0 ? "Cancelled" : "Complete", successCount, errorCount);
+
+                if (skippedCount > 0) {
+                    message += "\nNot generated: " + skippedCount;
+                }
+
+                if (errorCount > 0) {
+                    message += "\n\nErrors:\n" + errorMessages.toString();
+                    JOptionPane.showMessageDialog(AdminDashboard.this, message, "Generation Results", JOptionPane.WARNING_MESSAGE);
+                } else if (skippedCount > 0) {
+                    JOptionPane.showMessageDialog(AdminDashboard.this, message, "Generation Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    message += "\n\nAll payslips saved to project directory.";
+                    JOptionPane.showMessageDialog(AdminDashboard.this, message, "Generation Complete", JOptionPane.INFORMATION_MESSAGE);
+                }
             }
-        }
+        };
+
+        worker.execute();
+        // Blocks user input to the dashboard until the worker closes the dialog
+        progressDialog.setVisible(true);
     }
 
     private void displayPayslipWindow(PayrollSummary payrollSummary) {
@@ -1278,8 +1412,14 @@ public class AdminDashboard extends JFrame {
         buttonPanel.add(cancelButton);
         buttonPanel.add(saveButton);
         
+        // Settings form on top, performance metrics below
+        JPanel settingsBody = new JPanel(new BorderLayout(0, 20));
+        settingsBody.setOpaque(false);
+        settingsBody.add(settingsForm, BorderLayout.NORTH);
+        settingsBody.add(createMetricsPanel(), BorderLayout.CENTER);
+        
         // Add form and buttons to settings content
-        settingsContent.add(settingsForm, BorderLayout.CENTER);
+        settingsContent.add(settingsBody, BorderLayout.CENTER);
         settingsContent.add(buttonPanel, BorderLayout.SOUTH);
         
         // Add components to settings panel
@@ -1304,6 +1444,68 @@ public class AdminDashboard extends JFrame {
         contentPanel.repaint();
     }
     
+    private JPanel createMetricsPanel() {
+        JPanel metricsPanel = new JPanel(new BorderLayout(0, 10));
+        metricsPanel.setOpaque(false);
+        
+        JLabel metricsLabel = new JLabel("Performance Metrics");
+        metricsLabel.setFont(new Font("Montserrat", Font.BOLD, 16));
+        
+        // Timings of loads, saves, lookups, payroll and punches since startup
+        JTextArea metricsText = new JTextArea(MetricsRegistry.getDefault().report());
+        metricsText.setEditable(false);
+        metricsText.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        
+        JScrollPane metricsScrollPane = new JScrollPane(metricsText);
+        metricsScrollPane.setPreferredSize(new Dimension(0, 220));
+        
+        JPanel metricsButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        metricsButtonPanel.setOpaque(false);
+        
+        ModernButton refreshButton = new ModernButton("Refresh");
+        refreshButton.setPreferredSize(new Dimension(100, 30));
+        refreshButton.addActionListener(e -> metricsText.setText(MetricsRegistry.getDefault().report()));
+        
+        ModernButton resetButton = new ModernButton("Reset");
+        resetButton.setPreferredSize(new Dimension(100, 30));
+        resetButton.setButtonColors(new Color(150, 150, 150), new Color(120, 120, 120));
+        resetButton.addActionListener(e -> {
+            MetricsRegistry.getDefault().reset();
+            metricsText.setText(MetricsRegistry.getDefault().report());
+        });
+        
+        ModernButton dumpButton = new ModernButton("Save to File");
+        dumpButton.setPreferredSize(new Dimension(130, 30));
+        dumpButton.addActionListener(e -> {
+            String fileName = String.format(AppConstants.METRICS_FILENAME_PATTERN,
+                    new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date()));
+            String filePath = System.getProperty("user.dir") + "/" + fileName;
+            
+            try {
+                MetricsRegistry.getDefault().dump(filePath);
+                JOptionPane.showMessageDialog(this,
+                        "Metrics saved to: " + filePath,
+                        "Save Successful",
+                        JOptionPane.INFORMATION_MESSAGE);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this,
+                        "Error saving metrics: " + ex.getMessage(),
+                        "Save Failed",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        
+        metricsButtonPanel.add(refreshButton);
+        metricsButtonPanel.add(resetButton);
+        metricsButtonPanel.add(dumpButton);
+        
+        metricsPanel.add(metricsLabel, BorderLayout.NORTH);
+        metricsPanel.add(metricsScrollPane, BorderLayout.CENTER);
+        metricsPanel.add(metricsButtonPanel, BorderLayout.SOUTH);
+        
+        return metricsPanel;
+    }
+    
     private void viewEmployeeDetails(int employeeId) {
         try {
             Employee employee = employeeController.getEmployeeById(employeeId);
@@ -1930,6 +2132,9 @@ public class AdminDashboard extends JFrame {
                 clockTimer.stop();
             }
             
+            // Make sure punches waiting to be saved are on disk
+            attendanceController.flushSaves();
+            
             dispose();
             
             // Create and show login form
@@ -2,6 +2,7 @@ package com.motorph.payroll.view.gui;
 
 import com.motorph.payroll.controller.AttendanceController;
 import com.motorph.payroll.controller.EmployeeController;
+import com.motorph.payroll.dao.DaoFactory;
 import com.motorph.payroll.model.Attendance;
 import com.motorph.payroll.model.Employee;
 import com.motorph.payroll.util.DateTimeUtil;
@@ -29,12 +30,27 @@ public class AttendanceManagementPanel extends JPanel {
     private LocalDate startDate;
     private LocalDate endDate;
     
+    // Redraws the table when attendance.csv is changed by another program
+    private final Runnable attendanceChangeListener = this::reloadAttendanceRecords;
+    
     public AttendanceManagementPanel(AttendanceController attendanceController, EmployeeController employeeController) {
         this.attendanceController = attendanceController;
         this.employeeController = employeeController;
         initializeUI();
     }
     
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        DaoFactory.addAttendanceChangeListener(attendanceChangeListener);
+    }
+    
+    @Override
+    public void removeNotify() {
+        DaoFactory.removeAttendanceChangeListener(attendanceChangeListener);
+        super.removeNotify();
+    }
+    
     private void initializeUI() {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -201,6 +217,12 @@ public class AttendanceManagementPanel extends JPanel {
         loadAttendanceRecords(employeeId, startDate, endDate);
     }
     
+    private void reloadAttendanceRecords() {
+        if (currentEmployeeId != -1) {
+            loadAttendanceRecords(currentEmployeeId, startDate, endDate);
+        }
+    }
+    
     private void loadAttendanceRecords(int employeeId, LocalDate startDate, LocalDate endDate) {
         // Clear table
         tableModel.setRowCount(0);
@@ -3,9 +3,11 @@ package com.motorph.payroll.view.gui;
 import com.motorph.payroll.controller.AttendanceController;
 import com.motorph.payroll.controller.EmployeeController;
 import com.motorph.payroll.controller.PayrollController;
+import com.motorph.payroll.dao.AttendanceDao;
 import com.motorph.payroll.dao.DaoFactory;
 import com.motorph.payroll.model.Attendance;
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollSummary;
 import com.motorph.payroll.service.AttendanceService;
 import com.motorph.payroll.service.AttendanceServiceImpl;
 import com.motorph.payroll.service.EmployeeService;
@@ -60,10 +62,12 @@ public class EmployeeDashboard extends JFrame {
     }
     
     private void initializeControllers() {
-        // Initialize other controllers
-        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.createEmployeeDao());
-        AttendanceService attendanceService = new AttendanceServiceImpl(DaoFactory.createAttendanceDao());
-        PayrollService payrollService = new PayrollServiceImpl(DaoFactory.createAttendanceDao());
+        // Initialize other controllers; attendance and payroll share one DAO
+        // so payroll sees attendance edits before they are saved
+        AttendanceDao attendanceDao = DaoFactory.getAttendanceDao();
+        EmployeeService employeeService = new EmployeeServiceImpl(DaoFactory.getEmployeeDao());
+        AttendanceService attendanceService = new AttendanceServiceImpl(attendanceDao, DaoFactory.getAttendanceSaveScheduler());
+        PayrollService payrollService = new PayrollServiceImpl(attendanceDao);
         
         this.attendanceController = new AttendanceController(attendanceService);
         this.payrollController = new PayrollController(payrollService, employeeService);
@@ -469,7 +473,7 @@ public class EmployeeDashboard extends JFrame {
                     "Successfully clocked in!",
                     "Clock In",
                     JOptionPane.INFORMATION_MESSAGE);
-                attendanceController.saveAttendance();
+                attendanceController.requestSave();
                 showDashboard(); // Refresh
             });
             
@@ -490,7 +494,7 @@ public class EmployeeDashboard extends JFrame {
                     "Successfully clocked out!",
                     "Clock Out",
                     JOptionPane.INFORMATION_MESSAGE);
-                attendanceController.saveAttendance();
+                attendanceController.requestSave();
                 showDashboard(); // Refresh
             });
             
@@ -691,7 +695,7 @@ public class EmployeeDashboard extends JFrame {
                     "Successfully clocked in!",
                     "Clock In",
                     JOptionPane.INFORMATION_MESSAGE);
-                attendanceController.saveAttendance();
+                attendanceController.requestSave();
                 showClockInOut(); // Refresh
             });
             
@@ -725,7 +729,7 @@ public class EmployeeDashboard extends JFrame {
                     "Successfully clocked out!",
                     "Clock Out",
                     JOptionPane.INFORMATION_MESSAGE);
-                attendanceController.saveAttendance();
+                attendanceController.requestSave();
                 showClockInOut(); // Refresh
             });
             
@@ -1287,7 +1291,8 @@ public class EmployeeDashboard extends JFrame {
         payslipListPanel.add(scrollPane, BorderLayout.CENTER);
         payslipListPanel.add(actionPanel, BorderLayout.SOUTH);
         
-        // Add payslip list panel to content panel
+        // Add the current period above the payslip list
+        payslipContent.add(createCurrentPeriodPanel(), BorderLayout.NORTH);
         payslipContent.add(payslipListPanel, BorderLayout.CENTER);
         
         // Add components to payslip panel
@@ -1320,6 +1325,41 @@ public class EmployeeDashboard extends JFrame {
         contentPanel.repaint();
     }
     
+    private JPanel createCurrentPeriodPanel() {
+        // The period's totals are kept up to date on every punch, so this is
+        // cheap enough to work out each time the view is opened
+        PayrollSummary preview = payrollController.calculatePayPeriodPreview(employee, LocalDate.now());
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
+        
+        JPanel wrapperPanel = new JPanel(new BorderLayout());
+        wrapperPanel.setOpaque(false);
+        wrapperPanel.setBorder(new EmptyBorder(0, 0, 15, 0));
+        
+        RoundedPanel currentPeriodPanel = new RoundedPanel(new BorderLayout(), new Color(255, 255, 255, 220));
+        currentPeriodPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        
+        JLabel currentPeriodTitle = new JLabel("Current Pay Period: "
+            + preview.getStartDate().format(dateFormatter) + " - " + preview.getEndDate().format(dateFormatter)
+            + " (to date)");
+        currentPeriodTitle.setFont(new Font("Montserrat", Font.BOLD, 18));
+        
+        JPanel totalsPanel = new JPanel(new GridLayout(3, 4, 15, 10));
+        totalsPanel.setOpaque(false);
+        totalsPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        
+        addLabelValuePair(totalsPanel, "Days Present:", String.valueOf(preview.getDaysPresent()));
+        addLabelValuePair(totalsPanel, "Hours Worked:", String.format("%.2f", preview.getTotalHours()));
+        addLabelValuePair(totalsPanel, "Overtime Hours:", String.format("%.2f", preview.getOvertimeHours()));
+        addLabelValuePair(totalsPanel, "Late Minutes:", String.format("%.0f", preview.getLateMinutes()));
+        addLabelValuePair(totalsPanel, "Total Deductions:", String.format("₱%,.2f", preview.getTotalDeductions()));
+        addLabelValuePair(totalsPanel, "Net Pay So Far:", String.format("₱%,.2f", preview.getNetPay()), true);
+        
+        currentPeriodPanel.add(currentPeriodTitle, BorderLayout.NORTH);
+        currentPeriodPanel.add(totalsPanel, BorderLayout.CENTER);
+        wrapperPanel.add(currentPeriodPanel, BorderLayout.CENTER);
+        return wrapperPanel;
+    }
+    
     private void showPayslipDetail(String payPeriod) {
         // Clear content panel
         contentPanel.removeAll();
@@ -1901,6 +1941,9 @@ public class EmployeeDashboard extends JFrame {
                 clockTimer.stop();
             }
             
+            // Make sure punches waiting to be saved are on disk
+            attendanceController.flushSaves();
+            
             dispose();
             
             // Create and show login form
@@ -45,7 +45,7 @@ public class EmployeeFormDialog extends JDialog {
         this.employeeController = employeeController;
         this.existingEmployee = existingEmployee;
         this.isEditMode = existingEmployee != null;
-        this.userService = new UserServiceImpl(DaoFactory.createUserDao());
+        this.userService = new UserServiceImpl(DaoFactory.getUserDao());
         initializeUI();
     }
     
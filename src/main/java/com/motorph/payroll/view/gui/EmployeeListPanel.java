@@ -1,6 +1,7 @@
 package com.motorph.payroll.view.gui;
 
 import com.motorph.payroll.controller.EmployeeController;
+import com.motorph.payroll.dao.DaoFactory;
 import com.motorph.payroll.model.Employee;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -14,11 +15,26 @@ public class EmployeeListPanel extends JPanel {
     private DefaultTableModel tableModel;
     private JTextField searchField;
     
+    // Redraws the list, keeping the current search, when employees.csv is changed by another program
+    private final Runnable employeeChangeListener = this::filterEmployees;
+    
     public EmployeeListPanel(EmployeeController employeeController) {
         this.employeeController = employeeController;
         initializeUI();
     }
     
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        DaoFactory.addEmployeeChangeListener(employeeChangeListener);
+    }
+    
+    @Override
+    public void removeNotify() {
+        DaoFactory.removeEmployeeChangeListener(employeeChangeListener);
+        super.removeNotify();
+    }
+    
     private void initializeUI() {
         setLayout(new BorderLayout());
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
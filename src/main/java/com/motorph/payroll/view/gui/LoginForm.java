@@ -26,7 +26,7 @@ public class LoginForm extends JFrame {
     
     public LoginForm(EmployeeController employeeController) {
         this.employeeController = employeeController;
-        this.userService = new UserServiceImpl(DaoFactory.createUserDao());
+        this.userService = new UserServiceImpl(DaoFactory.getUserDao());
         initializeUI();
     }
     
@@ -0,0 +1,241 @@
+package com.motorph.payroll.view.http;
+
+import com.motorph.payroll.controller.AttendanceController;
+import com.motorph.payroll.controller.EmployeeController;
+import com.motorph.payroll.dao.AttendanceDao;
+import com.motorph.payroll.dao.DaoFactory;
+import com.motorph.payroll.exception.DataAccessException;
+import com.motorph.payroll.exception.EmployeeNotFoundException;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.service.AttendanceServiceImpl;
+import com.motorph.payroll.service.EmployeeServiceImpl;
+import com.motorph.payroll.util.AppConstants;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Small HTTP service that lets time terminals clock employees in and out
+ * without running the Swing dashboard.
+ *
+ * Endpoints, each taking the employee as {@code ?employeeId=10001}:
+ * <pre>
+ * POST /clock-in    clock the employee in and return today's record
+ * POST /clock-out   clock the employee out and return today's record
+ * GET  /today       return today's record, or 404 if there is none
+ * </pre>
+ * Records are returned as JSON, for example
+ * {@code {"employeeId":10001,"date":"06/03/2024","timeIn":"08:59","timeOut":null,"totalHours":0.00}}.
+ *
+ * The server listens on AppConstants.CLOCK_IN_SERVER_HOST, the loopback
+ * address, unless another host is given. Requests are served by a fixed pool
+ * of threads. Punches are not saved one by one; each asks the attendance
+ * service for a save, and the saves requested during a burst are grouped into
+ * one background write. Stopping the server writes any that are still waiting.
+ */
+public class ClockInServer {
+    private static final int REQUEST_THREADS = 32;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private final AttendanceController attendanceController;
+    private final EmployeeController employeeController;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+
+    /**
+     * Create a server listening on a port of the default host. Call start()
+     * to begin serving.
+     * @param attendanceController Handles the punches
+     * @param employeeController Used to reject unknown employee IDs
+     * @param port The TCP port, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public ClockInServer(AttendanceController attendanceController, EmployeeController employeeController, int port)
+            throws IOException {
+        this(attendanceController, employeeController, AppConstants.CLOCK_IN_SERVER_HOST, port);
+    }
+
+    /**
+     * Create a server listening on a host and port. Call start() to begin serving.
+     * @param attendanceController Handles the punches
+     * @param employeeController Used to reject unknown employee IDs
+     * @param host The host name or address to listen on, such as 0.0.0.0 for every interface
+     * @param port The TCP port, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public ClockInServer(AttendanceController attendanceController, EmployeeController employeeController,
+            String host, int port) throws IOException {
+        this.attendanceController = attendanceController;
+        this.employeeController = employeeController;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.requestExecutor = Executors.newFixedThreadPool(REQUEST_THREADS, namedThreads("clock-in-http"));
+
+        server.createContext("/clock-in", exchange -> handlePunch(exchange, attendanceController::clockIn));
+        server.createContext("/clock-out", exchange -> handlePunch(exchange, attendanceController::clockOut));
+        server.createContext("/today", this::handleToday);
+        server.setExecutor(requestExecutor);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Clock-in server listening on " + server.getAddress().getHostString() + ":" + getPort());
+    }
+
+    /**
+     * Stop accepting requests, let running ones finish and save any punches
+     * not yet saved
+     */
+    public void stop() {
+        server.stop(1);
+        requestExecutor.shutdown();
+        try {
+            requestExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        attendanceController.flushSaves();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handlePunch(HttpExchange exchange, IntConsumer punch) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Use POST");
+            return;
+        }
+
+        Integer employeeId = readEmployeeId(exchange);
+        if (employeeId == null) {
+            return;
+        }
+
+        try {
+            punch.accept(employeeId);
+            attendanceController.requestSave();
+            Attendance todayRecord = attendanceController.getTodayAttendance(employeeId);
+            if (todayRecord == null) {
+                // Clocking out without clocking in changes nothing
+                sendError(exchange, 409, "Employee " + employeeId + " has not clocked in today");
+            } else {
+                sendJson(exchange, 200, toJson(todayRecord));
+            }
+        } catch (DataAccessException e) {
+            sendError(exchange, 500, e.getMessage());
+        }
+    }
+
+    private void handleToday(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+
+        Integer employeeId = readEmployeeId(exchange);
+        if (employeeId == null) {
+            return;
+        }
+
+        Attendance todayRecord = attendanceController.getTodayAttendance(employeeId);
+        if (todayRecord == null) {
+            sendError(exchange, 404, "Employee " + employeeId + " has not clocked in today");
+        } else {
+            sendJson(exchange, 200, toJson(todayRecord));
+        }
+    }
+
+    // Helper method to read and check the employeeId parameter; sends the
+    // error response and returns null if it is missing or unknown
+    private Integer readEmployeeId(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String value = null;
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("employeeId=")) {
+                    value = parameter.substring("employeeId=".length());
+                }
+            }
+        }
+
+        int employeeId;
+        try {
+            employeeId = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Missing or invalid employeeId");
+            return null;
+        }
+
+        try {
+            employeeController.getEmployeeById(employeeId);
+        } catch (EmployeeNotFoundException e) {
+            sendError(exchange, 404, e.getMessage());
+            return null;
+        }
+        return employeeId;
+    }
+
+    private static String toJson(Attendance attendance) {
+        return String.format("{\"employeeId\":%d,\"date\":\"%s\",\"timeIn\":%s,\"timeOut\":%s,\"totalHours\":%.2f}",
+            attendance.getEmployeeId(),
+            attendance.getDate().format(DATE_FORMATTER),
+            attendance.getTimeIn() != null ? "\"" + attendance.getFormattedTimeIn() + "\"" : "null",
+            attendance.getTimeOut() != null ? "\"" + attendance.getFormattedTimeOut() + "\"" : "null",
+            attendance.getTotalHours());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Run the clock-in server on its own, without the GUI
+     * @param args Optional port number, defaulting to AppConstants.CLOCK_IN_SERVER_PORT,
+     *             then optional host, defaulting to AppConstants.CLOCK_IN_SERVER_HOST
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : AppConstants.CLOCK_IN_SERVER_PORT;
+        String host = args.length > 1 ? args[1] : AppConstants.CLOCK_IN_SERVER_HOST;
+
+        // Pick up edits other programs make to the data files while serving
+        DaoFactory.startFileWatcher(Runnable::run);
+
+        AttendanceDao attendanceDao = DaoFactory.getAttendanceDao();
+        ClockInServer clockInServer = new ClockInServer(
+            new AttendanceController(new AttendanceServiceImpl(attendanceDao, DaoFactory.getAttendanceSaveScheduler())),
+            new EmployeeController(new EmployeeServiceImpl(DaoFactory.getEmployeeDao())),
+            host, port);
+        // The factory's shutdown hook stops the server, so the last punches
+        // are saved before the journal is folded into the CSV
+        DaoFactory.addCloseListener(clockInServer::stop);
+        clockInServer.start();
+    }
+}
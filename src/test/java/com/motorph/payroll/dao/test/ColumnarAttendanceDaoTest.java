@@ -0,0 +1,138 @@
+package com.motorph.payroll.dao.test;
+
+import com.motorph.payroll.dao.ColumnarAttendanceDao;
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.exception.DataAccessException;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
+import com.motorph.payroll.util.test.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class ColumnarAttendanceDaoTest {
+    
+    private ColumnarAttendanceDao attendanceDao;
+    private String testFilePath;
+    private final String TEMP_FILE = "temp-columnar-attendance.csv";
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        testFilePath = TestUtil.createTempTestFile(TestUtil.TEST_ATTENDANCE_CSV, TEMP_FILE);
+        attendanceDao = new ColumnarAttendanceDao(testFilePath);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        TestUtil.cleanupTempTestFile(TEMP_FILE);
+        TestUtil.cleanupTempTestFile(TEMP_FILE + ".journal");
+    }
+    
+    @Test
+    public void testLoadSortsAndKeepsLastDuplicate() throws Exception {
+        Files.writeString(Paths.get(testFilePath),
+            "Employee #,Last Name,First Name,Date,Time In,Time Out\n" +
+            "2,,,03/01/2024,08:30,17:15\n" +
+            "1,,,03/02/2024,08:15,17:30\n" +
+            "1,,,03/01/2024,08:00,17:00\n" +
+            "1,,,03/02/2024,09:00,\n");
+        
+        ColumnarAttendanceDao dao = new ColumnarAttendanceDao(testFilePath);
+        List<Attendance> attendance = dao.getAllAttendance();
+        
+        assertEquals(3, attendance.size());
+        assertEquals(LocalDate.of(2024, 3, 1), attendance.get(0).getDate());
+        assertEquals(LocalTime.of(9, 0), attendance.get(1).getTimeIn());
+        assertNull(attendance.get(1).getTimeOut());
+        assertEquals(2, attendance.get(2).getEmployeeId());
+    }
+    
+    @Test
+    public void testQueriesMatchFileFormat() {
+        assertEquals(3, attendanceDao.getRecordCount());
+        assertEquals(2, attendanceDao.getAttendanceByEmployeeId(1).size());
+        assertTrue(attendanceDao.getAttendanceByEmployeeId(999).isEmpty());
+        
+        List<Attendance> attendance = attendanceDao.getAttendanceByDateRange(
+            1,
+            LocalDate.of(2024, 3, 2),
+            LocalDate.of(2024, 3, 31)
+        );
+        assertEquals(1, attendance.size());
+        assertEquals(LocalTime.of(8, 15), attendance.get(0).getTimeIn());
+        assertEquals(15.0, attendance.get(0).getLateMinutes());
+        
+        assertEquals(2, attendanceDao.getAttendanceByDateRange(
+            LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)).size());
+    }
+    
+    @Test
+    public void testAttendanceTotals() {
+        AttendanceTotals totals = attendanceDao.getAttendanceTotals(
+            1,
+            LocalDate.of(2024, 3, 1),
+            LocalDate.of(2024, 3, 31)
+        );
+        
+        // 8h on time, then 8h15m with 15 minutes late and 30 minutes overtime
+        assertEquals(2, totals.getDaysPresent());
+        assertEquals(1, totals.getDaysLate());
+        assertEquals(975, totals.getWorkedMinutes());
+        assertEquals(15, totals.getLateMinutes());
+        assertEquals(0.5, totals.getOvertimeHours());
+        
+        List<AttendanceTotals> allTotals = attendanceDao.getAttendanceTotals(
+            LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1));
+        assertEquals(2, allTotals.size());
+        assertEquals(2, allTotals.get(1).getEmployeeId());
+        assertEquals(30, allTotals.get(1).getLateMinutes());
+    }
+    
+    @Test
+    public void testJournalIsAppliedAndBlocksSaving() {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 4), LocalTime.of(8, 0), null));
+        journaledDao.updateAttendance(new Attendance(1, LocalDate.of(2024, 3, 4), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        journaledDao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        assertTrue(journaledDao.saveAttendance());
+        
+        // Punches only in the journal are included
+        ColumnarAttendanceDao dao = new ColumnarAttendanceDao(testFilePath);
+        assertEquals(3, dao.getRecordCount());
+        assertEquals(LocalTime.of(17, 0), dao.getAttendanceByDateRange(
+            1, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4)).get(0).getTimeOut());
+        assertTrue(dao.getAttendanceByEmployeeId(2).isEmpty());
+        
+        // The CSV is not rewritten under the journal, only once it is compacted
+        assertFalse(dao.saveAttendance());
+        assertTrue(journaledDao.compact());
+        assertTrue(dao.saveAttendance());
+        assertEquals(3, new ColumnarAttendanceDao(testFilePath).getRecordCount());
+    }
+    
+    @Test
+    public void testAddUpdateDeleteAndSave() {
+        attendanceDao.addAttendance(new Attendance(1, LocalDate.of(2024, 2, 28), LocalTime.of(8, 0), null));
+        attendanceDao.updateAttendance(new Attendance(1, LocalDate.of(2024, 2, 28), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        attendanceDao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        
+        assertThrows(DataAccessException.class, () -> attendanceDao.deleteAttendance(2, LocalDate.of(2024, 3, 1)));
+        assertThrows(DataAccessException.class, () -> attendanceDao.updateAttendance(
+            new Attendance(3, LocalDate.of(2024, 3, 1), LocalTime.of(8, 0), LocalTime.of(17, 0))));
+        
+        assertTrue(attendanceDao.saveAttendance());
+        
+        List<Attendance> attendance = new ColumnarAttendanceDao(testFilePath).getAllAttendance();
+        assertEquals(3, attendance.size());
+        assertEquals(LocalDate.of(2024, 2, 28), attendance.get(0).getDate());
+        assertEquals(LocalTime.of(17, 0), attendance.get(0).getTimeOut());
+        assertEquals(1, attendance.get(2).getEmployeeId());
+    }
+}
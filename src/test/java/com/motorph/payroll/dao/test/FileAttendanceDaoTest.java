@@ -3,21 +3,39 @@ package com.motorph.payroll.dao.test;
 import com.motorph.payroll.dao.AttendanceDao;
 import com.motorph.payroll.dao.FileAttendanceDao;
 import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.AttendanceTotals;
+import com.motorph.payroll.util.DateTimeUtil;
 import com.motorph.payroll.util.test.TestUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class FileAttendanceDaoTest {
     
     private AttendanceDao attendanceDao;
     private String testFilePath;
     private final String TEMP_FILE = "temp-attendance.csv";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
     
     @BeforeEach
     public void setUp() throws Exception {
@@ -30,6 +48,8 @@ public class FileAttendanceDaoTest {
     public void tearDown() {
         // Clean up the temporary file
         TestUtil.cleanupTempTestFile(TEMP_FILE);
+        TestUtil.cleanupTempTestFile(TEMP_FILE + ".journal");
+        TestUtil.cleanupTempTestFile(TEMP_FILE + ".bin");
     }
     
     @Test
@@ -94,6 +114,45 @@ public class FileAttendanceDaoTest {
         assertTrue(attendance.isEmpty());
     }
     
+    @Test
+    public void testGetAttendanceByDateRangeIsSortedAndReflectsChanges() {
+        // Add an earlier record after the existing ones
+        attendanceDao.addAttendance(new Attendance(
+            1,
+            LocalDate.of(2024, 2, 28),
+            LocalTime.of(8, 0),
+            LocalTime.of(17, 0)
+        ));
+        
+        List<Attendance> attendance = attendanceDao.getAttendanceByDateRange(
+            1, 
+            LocalDate.of(2024, 2, 1),
+            LocalDate.of(2024, 3, 31)
+        );
+        
+        // Verify records come back in date order
+        assertEquals(3, attendance.size());
+        assertEquals(LocalDate.of(2024, 2, 28), attendance.get(0).getDate());
+        assertEquals(LocalDate.of(2024, 3, 2), attendance.get(2).getDate());
+        
+        // Delete a record and verify the range no longer returns it
+        attendanceDao.deleteAttendance(1, LocalDate.of(2024, 3, 2));
+        attendance = attendanceDao.getAttendanceByDateRange(
+            1, 
+            LocalDate.of(2024, 3, 2),
+            LocalDate.of(2024, 3, 2)
+        );
+        assertTrue(attendance.isEmpty());
+        
+        // Verify an inverted range returns no records
+        attendance = attendanceDao.getAttendanceByDateRange(
+            1, 
+            LocalDate.of(2024, 3, 31),
+            LocalDate.of(2024, 3, 1)
+        );
+        assertTrue(attendance.isEmpty());
+    }
+    
     @Test
     public void testAddAttendance() {
         // Create a new attendance record
@@ -202,4 +261,372 @@ public class FileAttendanceDaoTest {
         
         assertEquals(1, attendance.size());
     }
+    
+    @Test
+    public void testSaveAttendanceWithJournal() throws Exception {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        
+        // Add, update and delete records, then save through the journal
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 3), LocalTime.of(8, 0), null));
+        journaledDao.updateAttendance(new Attendance(1, LocalDate.of(2024, 3, 3), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        journaledDao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        assertTrue(journaledDao.saveAttendance());
+        
+        // The CSV snapshot is untouched until compaction
+        assertEquals(3, new FileAttendanceDao(testFilePath).getAllAttendance().size());
+        
+        // A new journaled DAO replays the changes on load
+        FileAttendanceDao reloadedDao = new FileAttendanceDao(testFilePath, true);
+        List<Attendance> attendance = reloadedDao.getAttendanceByDateRange(
+            1, 
+            LocalDate.of(2024, 3, 3),
+            LocalDate.of(2024, 3, 3)
+        );
+        assertEquals(1, attendance.size());
+        assertEquals(LocalTime.of(17, 0), attendance.get(0).getTimeOut());
+        assertTrue(reloadedDao.getAttendanceByEmployeeId(2).isEmpty());
+        
+        // Compaction folds the journal into the CSV snapshot
+        assertTrue(journaledDao.compact());
+        AttendanceDao snapshotDao = new FileAttendanceDao(testFilePath);
+        assertEquals(3, snapshotDao.getAllAttendance().size());
+        assertTrue(snapshotDao.getAttendanceByEmployeeId(2).isEmpty());
+        assertEquals(0, Files.size(Paths.get(testFilePath + ".journal")));
+    }
+    
+    @Test
+    public void testJournalReplayIgnoresTornEntry() throws Exception {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 3), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        assertTrue(journaledDao.saveAttendance());
+        
+        // Simulate a crash part way through appending an entry
+        Files.write(Paths.get(testFilePath + ".journal"), 
+            "A,1,03/04/2024,08:0".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        
+        FileAttendanceDao reloadedDao = new FileAttendanceDao(testFilePath, true);
+        assertEquals(3, reloadedDao.getAttendanceByEmployeeId(1).size());
+        assertTrue(reloadedDao.getAttendanceByDateRange(
+            1, 
+            LocalDate.of(2024, 3, 4),
+            LocalDate.of(2024, 3, 4)
+        ).isEmpty());
+    }
+    
+    @Test
+    public void testJournalAppendAfterTornEntryIsKept() throws Exception {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 3), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        assertTrue(journaledDao.saveAttendance());
+        Files.write(Paths.get(testFilePath + ".journal"), 
+            "A,1,03/03/2024,08:0".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        
+        // The restarted DAO drops the torn entry before appending its own
+        FileAttendanceDao restartedDao = new FileAttendanceDao(testFilePath, true);
+        restartedDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 4), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        assertTrue(restartedDao.saveAttendance());
+        
+        FileAttendanceDao reopenedDao = new FileAttendanceDao(testFilePath, true);
+        assertEquals(4, reopenedDao.getAttendanceByEmployeeId(1).size());
+        assertEquals(LocalTime.of(17, 0), reopenedDao.getAttendanceByDateRange(
+            1, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4)).get(0).getTimeOut());
+        assertTrue(new String(Files.readAllBytes(Paths.get(testFilePath + ".journal")), StandardCharsets.UTF_8)
+            .endsWith("A,1,03/04/2024,08:00,17:00\n"));
+    }
+    
+    @Test
+    public void testBinarySnapshotIsUsedWhileCurrent() throws Exception {
+        Path csvPath = Paths.get(testFilePath);
+        Path snapshotPath = Paths.get(testFilePath + ".bin");
+        String original = Files.readString(csvPath);
+        
+        // The first load parses the CSV and writes the snapshot
+        new FileAttendanceDao(testFilePath, false, true);
+        assertTrue(Files.exists(snapshotPath));
+        
+        // Edit the CSV without changing its size or modification time
+        long modified = new File(testFilePath).lastModified();
+        Files.writeString(csvPath, original.replace("03/01/2024,08:00", "03/01/2024,09:00"));
+        assertTrue(new File(testFilePath).setLastModified(modified));
+        assertEquals(LocalTime.of(8, 0), firstRecord(new FileAttendanceDao(testFilePath, false, true)).getTimeIn());
+        
+        // Once the CSV's time changes the snapshot is stale and rebuilt
+        assertTrue(new File(testFilePath).setLastModified(modified + 2000));
+        assertEquals(LocalTime.of(9, 0), firstRecord(new FileAttendanceDao(testFilePath, false, true)).getTimeIn());
+        
+        // A snapshot that fails its checksum is ignored
+        Files.writeString(csvPath, original);
+        assertTrue(new File(testFilePath).setLastModified(modified + 2000));
+        byte[] snapshot = Files.readAllBytes(snapshotPath);
+        snapshot[snapshot.length - 1] ^= 1;
+        Files.write(snapshotPath, snapshot);
+        assertEquals(LocalTime.of(8, 0), firstRecord(new FileAttendanceDao(testFilePath, false, true)).getTimeIn());
+    }
+    
+    @Test
+    public void testReloadDiscardsUnsavedChanges() {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 3), LocalTime.of(8, 0), null));
+        assertTrue(journaledDao.saveAttendance());
+        journaledDao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        
+        // Saved journal entries survive a reload, unsaved changes do not
+        journaledDao.reload();
+        assertEquals(4, journaledDao.getAllAttendance().size());
+        assertEquals(1, journaledDao.getAttendanceByEmployeeId(2).size());
+        
+        // Closing folds the journal into the CSV
+        journaledDao.close();
+        assertEquals(4, new FileAttendanceDao(testFilePath).getAllAttendance().size());
+    }
+    
+    @Test
+    public void testPayPeriodTotalsFollowChanges() {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        LocalDate periodStart = DateTimeUtil.getPayPeriodStart(LocalDate.now());
+        LocalDate periodEnd = DateTimeUtil.getPayPeriodEnd(LocalDate.now());
+        
+        // Only the first two fall in the current period; the open day still counts as recorded
+        journaledDao.addAttendance(new Attendance(1, periodStart, LocalTime.of(8, 15), LocalTime.of(17, 30)));
+        journaledDao.addAttendance(new Attendance(1, periodEnd, LocalTime.of(8, 0), null));
+        journaledDao.addAttendance(new Attendance(1, periodStart.minusDays(1), LocalTime.of(8, 0), LocalTime.of(17, 0)));
+        assertTotals(journaledDao, 1, periodStart, 2, 1, 1, 495, 15, 30);
+        
+        journaledDao.updateAttendance(new Attendance(1, periodEnd, LocalTime.of(8, 0), LocalTime.of(18, 0)));
+        assertTotals(journaledDao, 1, periodEnd, 2, 2, 1, 1035, 15, 90);
+        
+        journaledDao.deleteAttendance(1, periodStart);
+        assertTotals(journaledDao, 1, periodStart, 1, 1, 0, 540, 0, 60);
+        assertTotals(journaledDao, 2, periodStart, 0, 0, 0, 0, 0, 0);
+        
+        // Past periods are summed from the records; 8h on time, then 8h15m 15 minutes late
+        assertTotals(journaledDao, 1, LocalDate.of(2024, 3, 10), 2, 2, 1, 975, 15, 30);
+        
+        // Totals are rebuilt from the journal on reload
+        assertTrue(journaledDao.saveAttendance());
+        journaledDao.reload();
+        assertTotals(journaledDao, 1, periodStart, 1, 1, 0, 540, 0, 60);
+        journaledDao.close();
+    }
+    
+    @Test
+    public void testRefreshReadsAppendedRowsAndReloadsOnRewrite() throws Exception {
+        FileAttendanceDao dao = new FileAttendanceDao(testFilePath);
+        Path csvPath = Paths.get(testFilePath);
+        assertFalse(dao.refresh());
+        
+        // An unsaved change survives rows appended by another program
+        dao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        Files.write(csvPath, "\n1,,,03/04/2024,08:00,17:00\n3,,,03/04".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+        assertTrue(dao.refresh());
+        assertEquals(3, dao.getAttendanceByEmployeeId(1).size());
+        assertTrue(dao.getAttendanceByEmployeeId(2).isEmpty());
+        
+        // The incomplete last line is read once its line break arrives
+        assertTrue(dao.getAttendanceByEmployeeId(3).isEmpty());
+        Files.write(csvPath, "/2024,09:00,17:00\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertTrue(dao.refresh());
+        assertEquals(LocalTime.of(9, 0), dao.getAttendanceByEmployeeId(3).get(0).getTimeIn());
+        
+        // Editing an earlier row reloads the whole file
+        Files.writeString(csvPath, Files.readString(csvPath).replace("03/01/2024,08:00", "03/01/2024,07:00"));
+        assertTrue(dao.refresh());
+        assertEquals(LocalTime.of(7, 0), firstRecord(dao).getTimeIn());
+        assertEquals(1, dao.getAttendanceByEmployeeId(2).size());
+        
+        // The DAO's own saves are not reported as changes
+        dao.deleteAttendance(2, LocalDate.of(2024, 3, 1));
+        assertTrue(dao.saveAttendance());
+        assertFalse(dao.refresh());
+    }
+    
+    @Test
+    public void testRefreshAfterSnapshotLoad() throws Exception {
+        Path csvPath = Paths.get(testFilePath);
+        String original = Files.readString(csvPath);
+        new FileAttendanceDao(testFilePath, false, true);
+        
+        // Rows appended to a CSV loaded from its snapshot are read on refresh
+        FileAttendanceDao dao = new FileAttendanceDao(testFilePath, false, true);
+        assertFalse(dao.refresh());
+        Files.write(csvPath, "\n3,,,03/04/2024,09:00,17:00\n".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+        assertTrue(dao.refresh());
+        assertEquals(LocalTime.of(9, 0), dao.getAttendanceByEmployeeId(3).get(0).getTimeIn());
+        
+        // Edit the CSV without changing its size or modification time, so
+        // the next DAO loads the old time from the snapshot
+        Files.writeString(csvPath, original);
+        new FileAttendanceDao(testFilePath, false, true);
+        long modified = new File(testFilePath).lastModified();
+        Files.writeString(csvPath, original.replace("03/01/2024,08:00", "03/01/2024,07:00"));
+        assertTrue(new File(testFilePath).setLastModified(modified));
+        dao = new FileAttendanceDao(testFilePath, false, true);
+        assertEquals(LocalTime.of(8, 0), firstRecord(dao).getTimeIn());
+        assertFalse(dao.refresh());
+        
+        // Once the time changes, the checksum in the snapshot shows the rewrite
+        assertTrue(new File(testFilePath).setLastModified(modified + 2000));
+        assertTrue(dao.refresh());
+        assertEquals(LocalTime.of(7, 0), firstRecord(dao).getTimeIn());
+    }
+    
+    @Test
+    public void testRefreshAfterRewriteKeepsUnsavedJournalEntries() throws Exception {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        journaledDao.addAttendance(new Attendance(1, LocalDate.of(2024, 3, 4), LocalTime.of(8, 0), null));
+        
+        // Another program rewrites the CSV before the punch is saved
+        Path csvPath = Paths.get(testFilePath);
+        Files.writeString(csvPath, Files.readString(csvPath).replace("03/01/2024,08:00", "03/01/2024,07:00"));
+        assertTrue(journaledDao.refresh());
+        
+        assertEquals(LocalTime.of(7, 0), firstRecord(journaledDao).getTimeIn());
+        assertEquals(1, journaledDao.getAttendanceByDateRange(
+            1, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4)).size());
+        assertEquals(3, new FileAttendanceDao(testFilePath, true).getAttendanceByEmployeeId(1).size());
+    }
+    
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+        FileAttendanceDao journaledDao = new FileAttendanceDao(testFilePath, true);
+        LocalDate start = LocalDate.of(2024, 4, 1);
+        int writers = 8;
+        int days = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writerTasks = new ArrayList<>();
+        List<Future<?>> readerTasks = new ArrayList<>();
+        
+        try {
+            // Each writer clocks one employee in and out, then deletes every other day
+            for (int w = 0; w < writers; w++) {
+                int employeeId = 100 + w;
+                writerTasks.add(executor.submit(() -> {
+                    for (int d = 0; d < days; d++) {
+                        LocalDate date = start.plusDays(d);
+                        journaledDao.addAttendance(new Attendance(employeeId, date, LocalTime.of(8, 0), null));
+                        journaledDao.updateAttendance(new Attendance(employeeId, date, LocalTime.of(8, 0), LocalTime.of(17, 0)));
+                        if (d % 2 == 1) {
+                            journaledDao.deleteAttendance(employeeId, date);
+                        }
+                        if (d % 10 == 0) {
+                            assertTrue(journaledDao.saveAttendance());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            
+            // Readers only ever see complete records, sorted by date
+            for (int r = 0; r < 4; r++) {
+                readerTasks.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        List<Attendance> range = journaledDao.getAttendanceByDateRange(start, start.plusDays(days));
+                        for (Attendance attendance : range) {
+                            assertNotNull(attendance.getTimeIn());
+                        }
+                        List<Attendance> employee = journaledDao.getAttendanceByDateRange(100, start, start.plusDays(days));
+                        for (int i = 1; i < employee.size(); i++) {
+                            assertTrue(employee.get(i - 1).getDate().isBefore(employee.get(i).getDate()));
+                        }
+                        journaledDao.getAllAttendance();
+                    }
+                    return null;
+                }));
+            }
+            
+            for (Future<?> task : writerTasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> task : readerTasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+        
+        int expected = 3 + writers * days / 2;
+        assertEquals(expected, journaledDao.getAllAttendance().size());
+        for (int w = 0; w < writers; w++) {
+            assertEquals(days / 2, journaledDao.getAttendanceByEmployeeId(100 + w).size());
+        }
+        
+        // Every change made it into the journal
+        assertTrue(journaledDao.saveAttendance());
+        assertEquals(expected, new FileAttendanceDao(testFilePath, true).getAllAttendance().size());
+    }
+    
+    @Test
+    public void testParallelLoadMatchesSequentialLoad() throws Exception {
+        // Large enough to be split into several chunks; row 100000 is on line 100001
+        StringBuilder csv = new StringBuilder("Employee #,Last Name,First Name,Date,Time In,Time Out\n");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int row = 1; row <= 160_000; row++) {
+            String employeeId = row == 100_000 ? "x" : String.valueOf(row % 400 + 1);
+            csv.append(employeeId).append(",,,").append(start.plusDays(row / 400).format(DATE_FORMATTER))
+               .append(",08:").append(row % 60 < 10 ? "0" : "").append(row % 60).append(",17:00\n");
+        }
+        Files.writeString(Paths.get(testFilePath), csv);
+        
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(errors, true));
+        try {
+            FileAttendanceDao sequentialDao = new FileAttendanceDao(testFilePath, false, false, 1);
+            FileAttendanceDao parallelDao = new FileAttendanceDao(testFilePath, false, false, 4);
+            assertEquals(159_999, parallelDao.getAllAttendance().size());
+            assertEquals(describe(sequentialDao), describe(parallelDao));
+            
+            // Errors keep their line numbers in the file, and so do rows appended later
+            Files.write(Paths.get(testFilePath), "1,,,bad,08:00,17:00\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+            assertTrue(parallelDao.refresh());
+        } finally {
+            System.setErr(originalErr);
+        }
+        String errorOutput = errors.toString();
+        // Reported once by each load
+        assertEquals(3, errorOutput.split("Error at line 100001:", -1).length, errorOutput);
+        assertTrue(errorOutput.contains("Error at line 160002:"), errorOutput);
+        
+        // A quoted field with a line break may straddle a chunk boundary
+        csv.setLength(0);
+        csv.append("Employee #,Last Name,First Name,Date,Time In,Time Out\n");
+        for (int row = 1; row <= 120_000; row++) {
+            csv.append(row % 400 + 1).append(",\"Garcia\nIII\",Manuel,")
+               .append(start.plusDays(row / 400).format(DATE_FORMATTER)).append(",08:00,17:00\n");
+        }
+        Files.writeString(Paths.get(testFilePath), csv);
+        assertEquals(describe(new FileAttendanceDao(testFilePath, false, false, 1)),
+            describe(new FileAttendanceDao(testFilePath, false, false, 4)));
+    }
+    
+    // All records in storage order, as text that can be compared
+    private static String describe(AttendanceDao dao) {
+        StringBuilder text = new StringBuilder();
+        for (Attendance attendance : dao.getAllAttendance()) {
+            text.append(attendance.getEmployeeId()).append(',').append(attendance.getEpochDay()).append(',')
+                .append(attendance.getTimeInMinute()).append(',').append(attendance.getTimeOutMinute()).append('\n');
+        }
+        return text.toString();
+    }
+    
+    private void assertTotals(AttendanceDao dao, int employeeId, LocalDate date, int daysRecorded, int daysPresent,
+                              int daysLate, long workedMinutes, long lateMinutes, long overtimeMinutes) {
+        AttendanceTotals totals = dao.getPayPeriodTotals(employeeId, date);
+        assertEquals(daysRecorded, totals.getDaysRecorded());
+        assertEquals(daysPresent, totals.getDaysPresent());
+        assertEquals(daysLate, totals.getDaysLate());
+        assertEquals(workedMinutes, totals.getWorkedMinutes());
+        assertEquals(lateMinutes, totals.getLateMinutes());
+        assertEquals(overtimeMinutes, totals.getOvertimeMinutes());
+    }
+    
+    private Attendance firstRecord(AttendanceDao dao) {
+        return dao.getAttendanceByDateRange(1, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 1)).get(0);
+    }
 }
\ No newline at end of file
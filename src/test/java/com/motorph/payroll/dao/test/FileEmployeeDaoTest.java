@@ -2,6 +2,7 @@ package com.motorph.payroll.dao.test;
 
 import com.motorph.payroll.dao.EmployeeDao;
 import com.motorph.payroll.dao.FileEmployeeDao;
+import com.motorph.payroll.exception.DataAccessException;
 import com.motorph.payroll.model.Employee;
 import com.motorph.payroll.model.RegularEmployee;
 import com.motorph.payroll.util.test.TestUtil;
@@ -11,7 +12,12 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class FileEmployeeDaoTest {
 
@@ -30,6 +36,7 @@ public class FileEmployeeDaoTest {
     public void tearDown() {
         // Clean up the temporary file
         TestUtil.cleanupTempTestFile(TEMP_FILE);
+        TestUtil.cleanupTempTestFile(TEMP_FILE + ".bin");
     }
 
     /**
@@ -120,6 +127,20 @@ public class FileEmployeeDaoTest {
         assertEquals(22000.0, updated.getBasicSalary());
     }
 
+    @Test
+    public void testUpdateEmployeeKeepsOrder() {
+        // Update the first employee
+        Employee employee = employeeDao.getEmployeeById(1);
+        employee.setLastName("Updated");
+        employeeDao.updateEmployee(employee);
+
+        // Verify the updated employee keeps its position in the list
+        List<Employee> employees = employeeDao.getAllEmployees();
+        assertEquals(1, employees.get(0).getEmployeeId());
+        assertEquals("Updated", employees.get(0).getLastName());
+        assertEquals(2, employees.get(1).getEmployeeId());
+    }
+
     @Test
     public void testDeleteEmployee() {
         // Delete an employee
@@ -159,6 +180,80 @@ public class FileEmployeeDaoTest {
         assertNotNull(retrieved);
         assertEquals("New", retrieved.getLastName());
     }
+    
+    @Test
+    public void testSaveLeavesNoTemporaryFiles() throws Exception {
+        Path csvPath = Paths.get(testFilePath);
+        employeeDao.deleteEmployee(1);
+        assertTrue(employeeDao.saveEmployees());
+        
+        // The new version was written aside and renamed over the CSV
+        try (Stream<Path> files = Files.list(csvPath.getParent())) {
+            assertTrue(files.noneMatch(path -> path.getFileName().toString().startsWith(TEMP_FILE + ".")
+                && path.getFileName().toString().endsWith(".tmp")));
+        }
+        assertEquals(1, new FileEmployeeDao(testFilePath).getAllEmployees().size());
+    }
+
+    @Test
+    public void testBinarySnapshotMatchesCsv() throws Exception {
+        Path csvPath = Paths.get(testFilePath);
+
+        // The first load parses the CSV and writes the snapshot
+        List<Employee> parsed = new FileEmployeeDao(testFilePath, true).getAllEmployees();
+        assertTrue(Files.exists(Paths.get(testFilePath + ".bin")));
+
+        // Edit the CSV without changing its size or modification time,
+        // so the next load can only see the old address via the snapshot
+        long modified = new File(testFilePath).lastModified();
+        Files.writeString(csvPath, Files.readString(csvPath).replace("Test Address 2", "Test Address 3"));
+        assertTrue(new File(testFilePath).setLastModified(modified));
+
+        List<Employee> loaded = new FileEmployeeDao(testFilePath, true).getAllEmployees();
+        assertEquals(parsed.size(), loaded.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            Employee expected = parsed.get(i);
+            Employee actual = loaded.get(i);
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(expected.getEmployeeId(), actual.getEmployeeId());
+            assertEquals(expected.getLastName(), actual.getLastName());
+            assertEquals(expected.getAddress(), actual.getAddress());
+            assertEquals(expected.getStatus(), actual.getStatus());
+            assertEquals(expected.getSupervisor(), actual.getSupervisor());
+            assertEquals(expected.getBasicSalary(), actual.getBasicSalary());
+            assertEquals(expected.getHourlyRate(), actual.getHourlyRate());
+        }
+        assertEquals("Test Address 2", loaded.get(1).getAddress());
+    }
+
+
+    @Test
+    public void testRefreshReadsAppendedEmployees() throws Exception {
+        FileEmployeeDao dao = new FileEmployeeDao(testFilePath);
+        assertFalse(dao.refresh());
+
+        Files.writeString(Paths.get(testFilePath),
+            "\n3,Test3,Employee3,03/03/1993,\"Test Address 3\",1112223333,77-7777777-7,77-777777777-7," +
+            "777-777-777-777,7777-7777-7777,Probationary,Test Position 3,Test Supervisor," +
+            "18000,1500,500,500,9000,102.27\n",
+            java.nio.file.StandardOpenOption.APPEND);
+
+        assertTrue(dao.refresh());
+        assertEquals(3, dao.getAllEmployees().size());
+        assertEquals("Test Address 3", dao.getEmployeeById(3).getAddress());
+        assertFalse(dao.refresh());
+    }
+
+    @Test
+    public void testFailedReloadKeepsEmployees() throws Exception {
+        FileEmployeeDao dao = new FileEmployeeDao(testFilePath);
+        Files.delete(Paths.get(testFilePath));
+
+        assertThrows(DataAccessException.class, dao::reload);
+        assertEquals(2, dao.getAllEmployees().size());
+        assertEquals("Test Address 2", dao.getEmployeeById(2).getAddress());
+    }
+
 }
 
 /* package com.motorph.payroll.dao.test;
@@ -0,0 +1,99 @@
+package com.motorph.payroll.dao.test;
+
+import com.motorph.payroll.dao.PersistenceScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PersistenceSchedulerTest {
+
+    private final AtomicInteger saves = new AtomicInteger();
+    private final AtomicBoolean failSaves = new AtomicBoolean();
+    private PersistenceScheduler scheduler;
+
+    @AfterEach
+    public void tearDown() {
+        if (scheduler != null) {
+            failSaves.set(false);
+            scheduler.close();
+        }
+    }
+
+    private PersistenceScheduler createScheduler(long windowMillis) {
+        scheduler = new PersistenceScheduler("test", () -> {
+            saves.incrementAndGet();
+            return !failSaves.get();
+        }, windowMillis);
+        return scheduler;
+    }
+
+    @Test
+    public void testRequestsWithinWindowAreSavedOnce() throws Exception {
+        createScheduler(200);
+        for (int i = 0; i < 100; i++) {
+            scheduler.requestSave();
+        }
+        assertEquals(0, saves.get());
+
+        // One background save covers the whole burst
+        waitForSaves(1);
+        Thread.sleep(300);
+        assertEquals(1, saves.get());
+
+        // Nothing is left to flush
+        assertTrue(scheduler.flush());
+        assertEquals(1, saves.get());
+    }
+
+    @Test
+    public void testFlushSavesRequestsWithoutWaitingForWindow() {
+        createScheduler(60_000);
+        assertTrue(scheduler.flush());
+        assertEquals(0, saves.get());
+
+        scheduler.requestSave();
+        scheduler.requestSave();
+        assertTrue(scheduler.flush());
+        assertEquals(1, saves.get());
+
+        // saveNow saves even when nothing was requested
+        assertTrue(scheduler.saveNow());
+        assertEquals(2, saves.get());
+    }
+
+    @Test
+    public void testFailedSaveStaysOutstanding() {
+        createScheduler(60_000);
+        failSaves.set(true);
+        scheduler.requestSave();
+        assertFalse(scheduler.flush());
+
+        failSaves.set(false);
+        assertTrue(scheduler.flush());
+        assertEquals(2, saves.get());
+    }
+
+    @Test
+    public void testCloseSavesOutstandingRequests() {
+        createScheduler(60_000);
+        scheduler.requestSave();
+        assertTrue(scheduler.close());
+        assertEquals(1, saves.get());
+
+        // After closing, requests are saved straight away
+        scheduler.requestSave();
+        assertEquals(2, saves.get());
+        scheduler = null;
+    }
+
+    private void waitForSaves(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (saves.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, saves.get());
+    }
+}
@@ -136,4 +136,47 @@ public class AttendanceTest {
         assertEquals("LATE", late.getStatus());
         assertEquals("ABSENT", absent.getStatus());
     }
+
+    @Test
+    public void testOfMinutesMatchesConstructor() {
+        Attendance fromTimes = new Attendance(
+            1,
+            LocalDate.of(2024, 3, 1),
+            LocalTime.of(8, 47),
+            LocalTime.of(19, 13)
+        );
+        Attendance fromMinutes = Attendance.ofMinutes(
+            1, (int) LocalDate.of(2024, 3, 1).toEpochDay(), 8 * 60 + 47, 19 * 60 + 13);
+
+        assertEquals(fromTimes.getDate(), fromMinutes.getDate());
+        assertEquals(fromTimes.getTimeIn(), fromMinutes.getTimeIn());
+        assertEquals(fromTimes.getTimeOut(), fromMinutes.getTimeOut());
+        assertEquals(fromTimes.getTotalHours(), fromMinutes.getTotalHours());
+        assertEquals(fromTimes.getOvertimeHours(), fromMinutes.getOvertimeHours());
+        assertEquals(47.0, fromMinutes.getLateMinutes());
+        assertEquals(566, fromMinutes.getWorkedMinutes());
+        assertEquals(133, fromMinutes.getOvertimeMinutes());
+
+        Attendance absent = Attendance.ofMinutes(1, 0, Attendance.NO_TIME, Attendance.NO_TIME);
+        assertNull(absent.getTimeIn());
+        assertEquals("ABSENT", absent.getStatus());
+
+        assertThrows(IllegalArgumentException.class, () -> Attendance.ofMinutes(1, 0, 24 * 60, Attendance.NO_TIME));
+    }
+
+    @Test
+    public void testTimesAreKeptToTheMinute() {
+        Attendance attendance = new Attendance(
+            1,
+            LocalDate.of(2024, 3, 1),
+            LocalTime.of(8, 0, 45),
+            LocalTime.of(16, 30, 10)
+        );
+
+        assertEquals(LocalTime.of(8, 0), attendance.getTimeIn());
+        assertEquals(LocalTime.of(16, 30), attendance.getTimeOut());
+        assertEquals(7.5, attendance.getTotalHours());
+        assertEquals(0.0, attendance.getLateMinutes());
+        assertEquals("PRESENT", attendance.getStatus());
+    }
 }
\ No newline at end of file
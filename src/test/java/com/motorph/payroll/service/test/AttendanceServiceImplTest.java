@@ -0,0 +1,135 @@
+package com.motorph.payroll.service.test;
+
+import com.motorph.payroll.dao.AttendanceDao;
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.service.AttendanceService;
+import com.motorph.payroll.service.AttendanceServiceImpl;
+import com.motorph.payroll.util.test.TestUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class AttendanceServiceImplTest {
+
+    private AttendanceDao attendanceDao;
+    private AttendanceService attendanceService;
+    private String testFilePath;
+    private final String TEMP_FILE = "temp-attendance.csv";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        testFilePath = TestUtil.createTempTestFile(TestUtil.TEST_ATTENDANCE_CSV, TEMP_FILE);
+        attendanceDao = new FileAttendanceDao(testFilePath);
+        attendanceService = new AttendanceServiceImpl(attendanceDao);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TestUtil.cleanupTempTestFile(TEMP_FILE);
+    }
+
+    @Test
+    public void testClockInAndOutAreIdempotent() {
+        assertNull(attendanceService.getTodayAttendance(5));
+
+        // Clocking out before clocking in does nothing
+        attendanceService.clockOut(5);
+        assertNull(attendanceService.getTodayAttendance(5));
+
+        attendanceService.clockIn(5);
+        Attendance clockedIn = attendanceService.getTodayAttendance(5);
+        assertNotNull(clockedIn.getTimeIn());
+        assertNull(clockedIn.getTimeOut());
+
+        // A second clock-in keeps the first time in
+        attendanceService.clockIn(5);
+        assertSame(clockedIn, attendanceService.getTodayAttendance(5));
+
+        attendanceService.clockOut(5);
+        Attendance clockedOut = attendanceService.getTodayAttendance(5);
+        assertEquals(clockedIn.getTimeIn(), clockedOut.getTimeIn());
+        assertNotNull(clockedOut.getTimeOut());
+        assertTrue(attendanceService.hasCompletedAttendanceForToday(5));
+
+        // Punches after a completed day change nothing
+        attendanceService.clockOut(5);
+        attendanceService.clockIn(5);
+        assertSame(clockedOut, attendanceService.getTodayAttendance(5));
+        assertEquals(1, attendanceDao.getAttendanceByEmployeeId(5).size());
+    }
+
+    @Test
+    public void testConcurrentPunchesCreateOneRecord() throws Exception {
+        int terminals = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(terminals);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> punches = new ArrayList<>();
+
+        try {
+            // Every terminal has its own service over the shared DAO
+            for (int i = 0; i < terminals; i++) {
+                AttendanceService terminal = new AttendanceServiceImpl(attendanceDao);
+                punches.add(executor.submit(() -> {
+                    start.await();
+                    terminal.clockIn(7);
+                    terminal.clockOut(7);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> punch : punches) {
+                punch.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Attendance> records = attendanceDao.getAttendanceByEmployeeId(7);
+        assertEquals(1, records.size());
+        assertNotNull(records.get(0).getTimeOut());
+    }
+
+    @Test
+    public void testEditsToTodayAreSeenByOtherServices() {
+        AttendanceService adminService = new AttendanceServiceImpl(attendanceDao);
+        LocalDate today = LocalDate.now();
+
+        attendanceService.clockIn(5);
+        adminService.updateAttendance(5, today, LocalTime.of(8, 0), LocalTime.of(17, 0));
+        assertEquals(LocalTime.of(8, 0), attendanceService.getTodayAttendance(5).getTimeIn());
+        assertTrue(attendanceService.hasCompletedAttendanceForToday(5));
+
+        // After a deletion the employee can clock in again
+        adminService.deleteAttendance(5, today);
+        assertNull(attendanceService.getTodayAttendance(5));
+        attendanceService.clockIn(5);
+        assertNotNull(attendanceService.getTodayAttendance(5));
+    }
+
+    @Test
+    public void testReloadForgetsTodayRecords() {
+        attendanceService.clockIn(5);
+        assertNotNull(attendanceService.getTodayAttendance(5));
+
+        // The unsaved clock-in is gone after a reload, and a clock-out no
+        // longer acts on the record the service had cached
+        ((FileAttendanceDao) attendanceDao).reload();
+        assertNull(attendanceService.getTodayAttendance(5));
+        attendanceService.clockOut(5);
+        assertNull(attendanceService.getTodayAttendance(5));
+        assertTrue(attendanceDao.getAttendanceByEmployeeId(5).isEmpty());
+    }
+}
@@ -2,11 +2,15 @@ package com.motorph.payroll.service.test;
 
 import com.motorph.payroll.dao.AttendanceDao;
 import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.model.Attendance;
 import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.model.PayrollBatchResult;
 import com.motorph.payroll.model.PayrollSummary;
 import com.motorph.payroll.model.RegularEmployee;
 import com.motorph.payroll.service.PayrollService;
 import com.motorph.payroll.service.PayrollServiceImpl;
+import com.motorph.payroll.service.WithholdingTaxTable;
+import com.motorph.payroll.util.DateTimeUtil;
 import com.motorph.payroll.util.test.TestUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +19,15 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class PayrollServiceImplTest {
 
@@ -100,6 +113,210 @@ public class PayrollServiceImplTest {
         assertTrue(payrollSummary.getNetPay() > 0);
         assertTrue(payrollSummary.getNetPay() < payrollSummary.getGrossPay());
     }
+
+    @Test
+    public void testCalculateBatchPayroll() {
+        Employee first = new RegularEmployee(
+                1, "Test", "Employee", "01/01/1990", "Test Address", "1234567890",
+                "99-9999999-9", "99-999999999-9", "999-999-999-999", "9999-9999-9999",
+                "Regular", "Test Position", "Test Supervisor",
+                20000, 1500, 1000, 1000,
+                10000, 113.64
+        );
+        Employee second = new RegularEmployee(
+                2, "Test2", "Employee2", "02/02/1992", "Test Address 2", "0987654321",
+                "88-8888888-8", "88-888888888-8", "888-888-888-888", "8888-8888-8888",
+                "Regular", "Test Position 2", "Test Supervisor",
+                25000, 1500, 1000, 1000,
+                12500, 142.05
+        );
+        Employee absent = new RegularEmployee(
+                3, "Test3", "Employee3", "03/03/1993", "Test Address 3", "5555555555",
+                "77-7777777-7", "77-777777777-7", "777-777-777-777", "7777-7777-7777",
+                "Regular", "Test Position 3", "Test Supervisor",
+                28000, 1500, 1000, 1000,
+                14000, 159.09
+        );
+
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+
+        List<PayrollSummary> summaries = payrollService.calculateBatchPayroll(
+                Arrays.asList(second, first, absent), startDate, endDate);
+
+        // Results follow the order of the employees passed in
+        assertEquals(3, summaries.size());
+        assertEquals(second, summaries.get(0).getEmployee());
+        assertEquals(first, summaries.get(1).getEmployee());
+        assertEquals(absent, summaries.get(2).getEmployee());
+
+        // Batch results match the single-employee calculation
+        PayrollSummary single = payrollService.calculatePayroll(first, startDate, endDate);
+        assertEquals(single.getDaysPresent(), summaries.get(1).getDaysPresent());
+        assertEquals(single.getTotalHours(), summaries.get(1).getTotalHours());
+        assertEquals(single.getNetPay(), summaries.get(1).getNetPay());
+        assertEquals(1, summaries.get(0).getAttendanceRecords().size());
+        assertTrue(summaries.get(2).getAttendanceRecords().isEmpty());
+    }
+
+    @Test
+    public void testParallelPayrollReportsProgressAndCancels() {
+        PayrollService parallelService = new PayrollServiceImpl(new FileAttendanceDao(testFilePath), 1);
+        Employee employee = new RegularEmployee(
+                1, "Test", "Employee", "01/01/1990", "Test Address", "1234567890",
+                "99-9999999-9", "99-999999999-9", "999-999-999-999", "9999-9999-9999",
+                "Regular", "Test Position", "Test Supervisor",
+                20000, 1500, 1000, 1000,
+                10000, 113.64
+        );
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            employees.add(employee);
+        }
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+
+        AtomicInteger lastProgress = new AtomicInteger();
+        PayrollBatchResult complete = parallelService.calculateParallelPayroll(employees, startDate, endDate,
+                () -> false, lastProgress::set);
+        assertEquals(20, complete.getPayrollSummaries().size());
+        assertEquals(20, lastProgress.get());
+
+        // Cancel after five employees; the rest are neither payslips nor errors
+        AtomicInteger finished = new AtomicInteger();
+        PayrollBatchResult cancelled = parallelService.calculateParallelPayroll(employees, startDate, endDate,
+                () -> finished.get() >= 5, finished::set);
+        assertEquals(5, cancelled.getPayrollSummaries().size());
+        assertFalse(cancelled.hasErrors());
+    }
+
+    @Test
+    public void testParallelPayrollRunsOnGivenExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(4, task -> new Thread(task, "payroll-test"));
+        try {
+            PayrollService parallelService = new PayrollServiceImpl(
+                    new FileAttendanceDao(testFilePath), executor, WithholdingTaxTable.getDefault());
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                employees.add(new RegularEmployee(
+                        i % 2 + 1, "Test", "Employee", "01/01/1990", "Test Address", "1234567890",
+                        "99-9999999-9", "99-999999999-9", "999-999-999-999", "9999-9999-9999",
+                        "Regular", "Test Position", "Test Supervisor",
+                        20000, 1500, 1000, 1000,
+                        10000, 113.64
+                ));
+            }
+
+            Set<Integer> reported = ConcurrentHashMap.newKeySet();
+            Set<String> threads = ConcurrentHashMap.newKeySet();
+            PayrollBatchResult result = parallelService.calculateParallelPayroll(employees,
+                    LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), () -> false, finished -> {
+                        reported.add(finished);
+                        threads.add(Thread.currentThread().getName());
+                    });
+
+            // Payslips keep the input order and every count is reported once
+            assertEquals(40, result.getPayrollSummaries().size());
+            for (int i = 0; i < 40; i++) {
+                assertSame(employees.get(i), result.getPayrollSummaries().get(i).getEmployee());
+            }
+            assertEquals(40, reported.size());
+            assertTrue(reported.contains(1) && reported.contains(40));
+            assertEquals(Set.of("payroll-test"), threads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPayPeriodPreviewMatchesPayroll() {
+        AttendanceDao attendanceDao = new FileAttendanceDao(testFilePath);
+        PayrollService previewService = new PayrollServiceImpl(attendanceDao);
+        Employee employee = new RegularEmployee(
+                1, "Test", "Employee", "01/01/1990", "Test Address", "1234567890",
+                "99-9999999-9", "99-999999999-9", "999-999-999-999", "9999-9999-9999",
+                "Regular", "Test Position", "Test Supervisor",
+                20000, 1500, 1000, 1000,
+                10000, 113.64
+        );
+        LocalDate today = LocalDate.now();
+        LocalDate periodStart = DateTimeUtil.getPayPeriodStart(today);
+        LocalDate periodEnd = DateTimeUtil.getPayPeriodEnd(today);
+
+        attendanceDao.addAttendance(new Attendance(1, periodStart, LocalTime.of(8, 20), LocalTime.of(18, 10)));
+        attendanceDao.addAttendance(new Attendance(1, periodStart.plusDays(1), LocalTime.of(7, 55), LocalTime.of(16, 45)));
+        attendanceDao.addAttendance(new Attendance(1, periodEnd, LocalTime.of(8, 0), null));
+        assertPreviewMatchesPayroll(previewService, employee, today);
+
+        attendanceDao.updateAttendance(new Attendance(1, periodEnd, LocalTime.of(8, 0), LocalTime.of(19, 0)));
+        attendanceDao.deleteAttendance(1, periodStart);
+        assertPreviewMatchesPayroll(previewService, employee, today);
+
+        // A past period gives the same figures as a full calculation too
+        assertPreviewMatchesPayroll(previewService, employee, LocalDate.of(2024, 3, 1));
+    }
+
+    @Test
+    public void testCalculateParallelPayroll() {
+        PayrollService parallelService = new PayrollServiceImpl(new FileAttendanceDao(testFilePath), 4);
+
+        Employee first = new RegularEmployee(
+                1, "Test", "Employee", "01/01/1990", "Test Address", "1234567890",
+                "99-9999999-9", "99-999999999-9", "999-999-999-999", "9999-9999-9999",
+                "Regular", "Test Position", "Test Supervisor",
+                20000, 1500, 1000, 1000,
+                10000, 113.64
+        );
+        // An employee whose calculation fails must not stop the others
+        Employee failing = new RegularEmployee(
+                2, "Test2", "Employee2", "02/02/1992", "Test Address 2", "0987654321",
+                "88-8888888-8", "88-888888888-8", "888-888-888-888", "8888-8888-8888",
+                "Regular", "Test Position 2", "Test Supervisor",
+                25000, 1500, 1000, 1000,
+                12500, 142.05
+        ) {
+            @Override
+            public double calculateSalary() {
+                throw new IllegalStateException("Salary unavailable");
+            }
+        };
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employees.add(i == 10 ? failing : first);
+        }
+
+        LocalDate startDate = LocalDate.of(2024, 3, 1);
+        LocalDate endDate = LocalDate.of(2024, 3, 31);
+
+        PayrollBatchResult result = parallelService.calculateParallelPayroll(employees, startDate, endDate);
+
+        assertEquals(49, result.getPayrollSummaries().size());
+        assertTrue(result.hasErrors());
+        assertEquals("Salary unavailable", result.getErrors().get(2));
+
+        PayrollSummary single = payrollService.calculatePayroll(first, startDate, endDate);
+        for (PayrollSummary summary : result.getPayrollSummaries()) {
+            assertEquals(first, summary.getEmployee());
+            assertEquals(single.getNetPay(), summary.getNetPay());
+        }
+    }
+
+    private void assertPreviewMatchesPayroll(PayrollService service, Employee employee, LocalDate date) {
+        PayrollSummary preview = service.calculatePayPeriodPreview(employee, date);
+        PayrollSummary payroll = service.calculatePayroll(employee,
+                DateTimeUtil.getPayPeriodStart(date), DateTimeUtil.getPayPeriodEnd(date));
+
+        assertEquals(payroll.getStartDate(), preview.getStartDate());
+        assertEquals(payroll.getEndDate(), preview.getEndDate());
+        assertEquals(payroll.getDaysPresent(), preview.getDaysPresent());
+        assertEquals(payroll.getTotalHours(), preview.getTotalHours(), 1e-9);
+        assertEquals(payroll.getOvertimeHours(), preview.getOvertimeHours(), 1e-9);
+        assertEquals(payroll.getLateMinutes(), preview.getLateMinutes(), 1e-9);
+        assertEquals(payroll.getTotalDeductions(), preview.getTotalDeductions(), 1e-6);
+        assertEquals(payroll.getNetPay(), preview.getNetPay(), 1e-6);
+        assertTrue(preview.getAttendanceRecords().isEmpty());
+    }
 }
 
 
@@ -0,0 +1,95 @@
+package com.motorph.payroll.service.test;
+
+import com.motorph.payroll.service.WithholdingTaxTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.Random;
+
+public class WithholdingTaxTableTest {
+
+    @Test
+    public void testDefaultTableMatchesBrackets() {
+        WithholdingTaxTable table = WithholdingTaxTable.getDefault();
+        Random random = new Random(42);
+
+        double[] incomes = new double[10000];
+        for (int i = 0; i < incomes.length; i++) {
+            // Semi-monthly incomes from -1,000 to about 500,000, plus the bracket bounds
+            incomes[i] = i < 6
+                ? new double[] { 0, 250000, 400000, 800000, 2000000, 8000000 }[i] / 24
+                : Math.round((random.nextDouble() * 501000 - 1000) * 100) / 100.0;
+        }
+
+        double[] taxes = table.withholdingTax(incomes);
+        for (int i = 0; i < incomes.length; i++) {
+            double expected = expectedTax(incomes[i]);
+            assertEquals(expected, table.withholdingTax(incomes[i]), "income " + incomes[i]);
+            assertEquals(expected, taxes[i], 1e-6, "income " + incomes[i]);
+        }
+        assertEquals(0.0, table.withholdingTax(10000));
+        assertEquals(10000.0 / 24, table.withholdingTax(300000.0 / 24), 1e-9);
+    }
+
+    @Test
+    public void testReadTableForAnotherYear() throws Exception {
+        // Brackets with a lower, rounded base tax: not continuous, so the batch uses the binary search
+        WithholdingTaxTable table = WithholdingTaxTable.read(new StringReader(
+            "Annual Income Over,Base Tax,Marginal Rate\n"
+            + "0,0,0\n"
+            + "250000, 0, 0.15\n"
+            + "400000,20000,0.20\n"));
+
+        assertEquals(0, table.annualTax(250000));
+        assertEquals(15000, table.annualTax(350000), 1e-9);
+        // A bound belongs to the bracket below it
+        assertEquals(22500, table.annualTax(400000), 1e-9);
+        assertEquals(40000, table.annualTax(500000), 1e-9);
+        assertEquals(0, table.annualTax(-5000));
+
+        double[] incomes = { -100, 0, 10000, 16666.67, 16667, 30000 };
+        double[] taxes = table.withholdingTax(incomes);
+        for (int i = 0; i < incomes.length; i++) {
+            assertEquals(table.withholdingTax(incomes[i]), taxes[i]);
+        }
+    }
+
+    @Test
+    public void testInvalidTablesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WithholdingTaxTable.read(new StringReader(
+            "Annual Income Over,Base Tax,Marginal Rate\n0,0,0\n250000,0,abc\n")));
+        // Must start at 0
+        assertThrows(IllegalArgumentException.class,
+            () -> new WithholdingTaxTable(new double[] { 100 }, new double[] { 0 }, new double[] { 0.1 }));
+        // Must be ascending
+        assertThrows(IllegalArgumentException.class, () -> new WithholdingTaxTable(
+            new double[] { 0, 500, 400 }, new double[] { 0, 0, 0 }, new double[] { 0, 0.1, 0.2 }));
+        // Rates are fractions
+        assertThrows(IllegalArgumentException.class,
+            () -> new WithholdingTaxTable(new double[] { 0 }, new double[] { 0 }, new double[] { 20 }));
+        assertThrows(IllegalArgumentException.class,
+            () -> new WithholdingTaxTable(new double[] { 0 }, new double[] { 0, 1 }, new double[] { 0 }));
+    }
+
+    // The brackets as written out before they became a table
+    private static double expectedTax(double taxableIncome) {
+        double annualizedIncome = taxableIncome * 24;
+        double annualTax;
+        if (annualizedIncome <= 250000) {
+            return 0;
+        } else if (annualizedIncome <= 400000) {
+            annualTax = (annualizedIncome - 250000) * 0.20;
+        } else if (annualizedIncome <= 800000) {
+            annualTax = 30000 + (annualizedIncome - 400000) * 0.25;
+        } else if (annualizedIncome <= 2000000) {
+            annualTax = 130000 + (annualizedIncome - 800000) * 0.30;
+        } else if (annualizedIncome <= 8000000) {
+            annualTax = 490000 + (annualizedIncome - 2000000) * 0.32;
+        } else {
+            annualTax = 2410000 + (annualizedIncome - 8000000) * 0.35;
+        }
+        return annualTax / 24;
+    }
+}
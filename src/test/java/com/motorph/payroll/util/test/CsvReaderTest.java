@@ -0,0 +1,77 @@
+package com.motorph.payroll.util.test;
+
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.DateTimeUtil;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+
+public class CsvReaderTest {
+
+    @Test
+    public void testParseLineWithQuotedFields() {
+        String[] fields = CsvReader.parseLine("1,\"Garcia, Manuel\",\"He said \"\"hi\"\"\",");
+
+        assertEquals(4, fields.length);
+        assertEquals("1", fields[0]);
+        assertEquals("Garcia, Manuel", fields[1]);
+        assertEquals("He said \"hi\"", fields[2]);
+        assertEquals("", fields[3]);
+    }
+
+    @Test
+    public void testNextSkipsBlankLinesAndTracksLineNumbers() throws Exception {
+        String csv = "Header\r\n10001,,,06/03/2024\r\n\r\n   \n10002,\"multi\nline\",x";
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv), 4)) {
+            assertTrue(reader.next());
+            assertEquals(1, reader.getLineNumber());
+
+            assertTrue(reader.next());
+            assertEquals(2, reader.getLineNumber());
+            assertEquals(10001, reader.getInt(0));
+            assertEquals("06/03/2024", reader.getField(3));
+
+            // Blank lines are skipped
+            assertTrue(reader.next());
+            assertEquals(5, reader.getLineNumber());
+            assertEquals(10002, reader.getInt(0));
+            assertEquals("multi\nline", reader.getField(1));
+            assertEquals(3, reader.getFieldCount());
+
+            // Missing fields read as empty
+            assertEquals("", reader.getField(5));
+
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testGetDatesAndTimesInPlace() throws Exception {
+        try (CsvReader reader = new CsvReader(new StringReader("10001,,,06/03/2024, 8:05,17:30\n10002,,,6/3/2024,8:5,"))) {
+            assertTrue(reader.next());
+            assertEquals(LocalDate.of(2024, 6, 3).toEpochDay(), reader.getEpochDay(3));
+            assertEquals(8 * 60 + 5, reader.getMinuteOfDay(4));
+            assertEquals(17 * 60 + 30, reader.getMinuteOfDay(5));
+            assertEquals(-1, reader.getMinuteOfDay(6));
+
+            // Other forms are left to the caller
+            assertTrue(reader.next());
+            assertEquals(DateTimeUtil.UNPARSEABLE, reader.getEpochDay(3));
+            assertEquals(DateTimeUtil.UNPARSEABLE, reader.getMinuteOfDay(4));
+            assertEquals(-1, reader.getMinuteOfDay(5));
+        }
+    }
+
+    @Test
+    public void testGetIntRejectsInvalidNumbers() throws Exception {
+        try (CsvReader reader = new CsvReader(new StringReader(" 42 ,abc,"))) {
+            assertTrue(reader.next());
+            assertEquals(42, reader.getInt(0));
+            assertThrows(NumberFormatException.class, () -> reader.getInt(1));
+            assertThrows(NumberFormatException.class, () -> reader.getInt(2));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.motorph.payroll.util.test;
+
+import com.motorph.payroll.util.CsvWriter;
+import com.motorph.payroll.util.DateTimeUtil;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+
+public class CsvWriterTest {
+
+    @Test
+    public void testFieldsAreSeparatedPerRow() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out, 4);
+
+        csv.writeLine("Employee #,Address,Date,Time In,Time Out");
+        csv.writeInt(10001).writeQuoted("Valero Carpark, Makati").writeDate(LocalDate.of(2024, 6, 3))
+           .writeTime(8 * 60 + 5).writeTime(-1).endRow();
+        csv.writeInt(-7).writeEmpty().writeText(null).writeAmount(-0.0).writeAmount(1500).endRow();
+        csv.flush();
+
+        assertEquals("Employee #,Address,Date,Time In,Time Out" + System.lineSeparator()
+            + "10001,\"Valero Carpark, Makati\",06/03/2024,08:05,\n"
+            + "-7,,null,-0.00,1500.00\n", out.toString());
+    }
+
+    @Test
+    public void testAmountsMatchStringFormat() throws Exception {
+        Random random = new Random(42);
+        double[] values = new double[20000];
+        for (int i = 0; i < values.length; i += 4) {
+            // Stored amounts, amounts with more decimals, halves and raw doubles
+            values[i] = Math.round(random.nextDouble() * 1e8) / 100.0;
+            values[i + 1] = random.nextDouble() * Math.pow(10, random.nextInt(16)) * (random.nextBoolean() ? 1 : -1);
+            values[i + 2] = (random.nextInt(2_000_000) + 0.5) / 1000.0;
+            values[i + 3] = Double.longBitsToDouble(random.nextLong());
+        }
+        double[] edges = { 0.0, 0.005, 0.015, 1.005, 2.675, 0.125, 9.995, 99.999, 1e13, 1e13 - 0.01,
+            Long.MAX_VALUE, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY };
+
+        for (double[] batch : new double[][] { values, edges }) {
+            StringWriter out = new StringWriter();
+            CsvWriter csv = new CsvWriter(out, 64);
+            StringBuilder expected = new StringBuilder();
+            for (double value : batch) {
+                csv.writeAmount(value).endRow();
+                expected.append(String.format("%.2f", value)).append('\n');
+            }
+            csv.flush();
+            assertEquals(expected.toString(), out.toString());
+        }
+    }
+
+    @Test
+    public void testDatesAndTimesMatchFormatters() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvWriter csv = new CsvWriter(out);
+        StringBuilder expected = new StringBuilder();
+
+        // Every day from year 1 to past year 9999, in steps that hit each day of the month
+        for (long epochDay = LocalDate.of(0, 1, 1).toEpochDay(); epochDay < LocalDate.of(10001, 1, 1).toEpochDay();
+                epochDay += 29) {
+            csv.writeDate(epochDay).endRow();
+            expected.append(LocalDate.ofEpochDay(epochDay).format(DateTimeUtil.DATE_FORMATTER)).append('\n');
+        }
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            csv.writeTime(minute).endRow();
+            expected.append(LocalTime.of(minute / 60, minute % 60).format(DateTimeUtil.TIME_FORMATTER)).append('\n');
+        }
+        csv.flush();
+
+        assertEquals(expected.toString(), out.toString());
+    }
+}
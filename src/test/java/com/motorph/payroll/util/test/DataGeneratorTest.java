@@ -0,0 +1,144 @@
+package com.motorph.payroll.util.test;
+
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.dao.FileEmployeeDao;
+import com.motorph.payroll.dao.FileUserDao;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.model.Employee;
+import com.motorph.payroll.util.CsvReader;
+import com.motorph.payroll.util.DataGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+public class DataGeneratorTest {
+    private static final String EMPLOYEE_FILE = "temp-generated-employees.csv";
+    private static final String ATTENDANCE_FILE = "temp-generated-attendance.csv";
+    private static final String USER_FILE = "temp-generated-user.csv";
+
+    @AfterEach
+    public void tearDown() {
+        TestUtil.cleanupTempTestFile(EMPLOYEE_FILE);
+        TestUtil.cleanupTempTestFile(ATTENDANCE_FILE);
+        TestUtil.cleanupTempTestFile(USER_FILE);
+    }
+
+    @Test
+    public void testGeneratedFilesLoadInDaos() throws Exception {
+        DataGenerator generator = new DataGenerator(250, 1, 7).setAbsenceRate(0.05);
+        write(generator);
+
+        FileEmployeeDao employeeDao = new FileEmployeeDao(TestUtil.getTestResourcePath(EMPLOYEE_FILE), false);
+        List<Employee> employees = employeeDao.getAllEmployees();
+        assertEquals(250, employees.size());
+        for (Employee employee : employees) {
+            assertTrue(employee.getGrossSemiMonthlyRate() > 0);
+        }
+
+        // Rank and file employees report to their team leader, and leaders to
+        // the leader above. Read from the file, as the DAO renames supervisors
+        // of regular employees.
+        List<String> lines = Files.readAllLines(Paths.get(TestUtil.getTestResourcePath(EMPLOYEE_FILE)));
+        assertEquals("N/A", CsvReader.parseLine(lines.get(1))[12]);
+        String[] leader = CsvReader.parseLine(lines.get(11));
+        assertEquals(leader[1] + ", " + leader[2], CsvReader.parseLine(lines.get(15))[12]);
+        assertEquals(leader[1] + ", " + leader[2], CsvReader.parseLine(lines.get(101))[12]);
+
+        FileUserDao userDao = new FileUserDao(TestUtil.getTestResourcePath(USER_FILE));
+        assertEquals(251, userDao.getAllUsers().size());
+        assertNotNull(userDao.authenticateUser("admin", "admin123"));
+        assertNotNull(userDao.authenticateUser("10250", "10250"));
+
+        FileAttendanceDao attendanceDao = new FileAttendanceDao(TestUtil.getTestResourcePath(ATTENDANCE_FILE));
+        List<Attendance> records = attendanceDao.getAllAttendance();
+        int workingDays = countWorkingDays(generator.getHistoryStart(), generator.getHistoryEnd());
+        assertEquals(LocalDate.of(2024, 1, 1), generator.getHistoryStart());
+        // About 5% of working days are absences
+        assertEquals(250 * workingDays * 0.95, records.size(), 250 * workingDays * 0.01);
+        for (Attendance record : records) {
+            assertTrue(record.isComplete());
+            assertNotEquals(DayOfWeek.SATURDAY, record.getDate().getDayOfWeek());
+            assertNotEquals(DayOfWeek.SUNDAY, record.getDate().getDayOfWeek());
+            assertTrue(record.getTimeOut().isAfter(record.getTimeIn()));
+        }
+    }
+
+    @Test
+    public void testDistributions() throws Exception {
+        DataGenerator generator = new DataGenerator(200, 0, 3)
+            .setHistoryMonths(2)
+            .setAbsenceRate(0)
+            .setLateDistribution(0.25, 30)
+            .setOvertimeDistribution(0.5, 60);
+        write(generator);
+
+        List<Attendance> records =
+            new FileAttendanceDao(TestUtil.getTestResourcePath(ATTENDANCE_FILE)).getAllAttendance();
+        assertEquals(200 * countWorkingDays(generator.getHistoryStart(), generator.getHistoryEnd()), records.size());
+
+        int lateDays = 0;
+        double lateMinutes = 0;
+        int overtimeDays = 0;
+        double overtimeMinutes = 0;
+        for (Attendance record : records) {
+            if (record.getLateMinutes() > 0) {
+                lateDays++;
+                lateMinutes += record.getLateMinutes();
+            }
+            if (record.getOvertimeMinutes() > 0) {
+                overtimeDays++;
+                overtimeMinutes += record.getOvertimeMinutes();
+            }
+        }
+        assertEquals(0.25, (double) lateDays / records.size(), 0.02);
+        assertEquals(31, lateMinutes / lateDays, 3);
+        assertEquals(0.5, (double) overtimeDays / records.size(), 0.02);
+        assertEquals(61, overtimeMinutes / overtimeDays, 4);
+    }
+
+    @Test
+    public void testSameSeedGivesSameFiles() throws Exception {
+        assertEquals(generateAll(new DataGenerator(100, 1, 42)), generateAll(new DataGenerator(100, 1, 42)));
+        assertNotEquals(generateAll(new DataGenerator(100, 1, 42)), generateAll(new DataGenerator(100, 1, 43)));
+        assertThrows(IllegalArgumentException.class, () -> new DataGenerator(0, 1, 42));
+        assertThrows(IllegalArgumentException.class, () -> new DataGenerator(10, 1, 42).setAbsenceRate(1.5));
+    }
+
+    private static void write(DataGenerator generator) throws Exception {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(TestUtil.getTestResourcePath(EMPLOYEE_FILE)))) {
+            generator.writeEmployees(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(TestUtil.getTestResourcePath(ATTENDANCE_FILE)))) {
+            generator.writeAttendance(writer);
+        }
+        try (Writer writer = Files.newBufferedWriter(Paths.get(TestUtil.getTestResourcePath(USER_FILE)))) {
+            generator.writeUsers(writer);
+        }
+    }
+
+    private static String generateAll(DataGenerator generator) throws Exception {
+        StringWriter out = new StringWriter();
+        generator.writeEmployees(out);
+        generator.writeAttendance(out);
+        generator.writeUsers(out);
+        return out.toString();
+    }
+
+    private static int countWorkingDays(LocalDate start, LocalDate end) {
+        int days = 0;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days++;
+            }
+        }
+        return days;
+    }
+}
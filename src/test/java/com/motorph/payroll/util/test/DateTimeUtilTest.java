@@ -0,0 +1,61 @@
+package com.motorph.payroll.util.test;
+
+import com.motorph.payroll.util.DateTimeUtil;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class DateTimeUtilTest {
+
+    @Test
+    public void testParseEpochDayMatchesFormatter() {
+        for (LocalDate date = LocalDate.of(1899, 1, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            String text = " " + date.format(DateTimeUtil.DATE_FORMATTER) + " ";
+            assertEquals(date.toEpochDay(), DateTimeUtil.parseEpochDay(text, 0, text.length()), text);
+        }
+        assertEquals(LocalDate.of(1, 1, 1).toEpochDay(), DateTimeUtil.parseEpochDay("01/01/0001", 0, 10));
+        assertEquals(LocalDate.of(9999, 12, 31).toEpochDay(), DateTimeUtil.parseEpochDay("12/31/9999", 0, 10));
+
+        // Parses a range of a longer text
+        assertEquals(LocalDate.of(2024, 6, 3).toEpochDay(), DateTimeUtil.parseEpochDay("10001,06/03/2024,x", 6, 16));
+
+        // Other forms and impossible dates are left to the formatter
+        for (String text : new String[] { "", "6/3/2024", "06-03-2024", "13/01/2024", "00/10/2024", "02/30/2024",
+                "02/29/2023", "06/31/2024", "06/00/2024", "01/01/0000", "0a/03/2024", "06/03/20245" }) {
+            assertEquals(DateTimeUtil.UNPARSEABLE, DateTimeUtil.parseEpochDay(text, 0, text.length()), text);
+        }
+    }
+
+    @Test
+    public void testParseMinuteOfDay() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            String padded = LocalTime.of(minute / 60, minute % 60).format(DateTimeUtil.TIME_FORMATTER);
+            String unpadded = (minute / 60) + padded.substring(2);
+            assertEquals(minute, DateTimeUtil.parseMinuteOfDay(padded, 0, padded.length()), padded);
+            assertEquals(minute, DateTimeUtil.parseMinuteOfDay(unpadded, 0, unpadded.length()), unpadded);
+        }
+        assertEquals(-1, DateTimeUtil.parseMinuteOfDay("  ", 0, 2));
+
+        for (String text : new String[] { "24:00", "8:60", "8:5", "123:45", "08:30:00", "08.30", "x8:30" }) {
+            assertEquals(DateTimeUtil.UNPARSEABLE, DateTimeUtil.parseMinuteOfDay(text, 0, text.length()), text);
+        }
+    }
+
+    @Test
+    public void testParseFallsBackToFormatter() {
+        assertEquals(LocalTime.of(8, 30), DateTimeUtil.parseTime(" 8:30 "));
+        assertEquals(LocalTime.of(8, 5), DateTimeUtil.parseTime("8:5"));
+        assertEquals(LocalTime.of(8, 30, 15), DateTimeUtil.parseTime("08:30:15"));
+        // The formatter reads 24:00 as midnight
+        assertEquals(LocalTime.MIDNIGHT, DateTimeUtil.parseTime("24:00"));
+        assertNull(DateTimeUtil.parseTime("25:00"));
+        assertNull(DateTimeUtil.parseTime(""));
+
+        assertEquals(LocalDate.of(2024, 6, 3), DateTimeUtil.parseDate("06/03/2024"));
+        // The formatter resolves days past the end of the month to the last day
+        assertEquals(LocalDate.of(2024, 2, 29), DateTimeUtil.parseDate("02/30/2024"));
+        assertNull(DateTimeUtil.parseDate("6/3/2024"));
+    }
+}
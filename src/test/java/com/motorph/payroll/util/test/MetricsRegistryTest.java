@@ -0,0 +1,132 @@
+package com.motorph.payroll.util.test;
+
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.util.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsRegistryTest {
+    private static final String TEMP_ATTENDANCE_CSV = "temp-metrics-attendance.csv";
+    private static final String TEMP_METRICS_FILE = "temp-metrics.txt";
+
+    @AfterEach
+    public void tearDown() {
+        TestUtil.cleanupTempTestFile(TEMP_ATTENDANCE_CSV);
+        TestUtil.cleanupTempTestFile(TEMP_METRICS_FILE);
+    }
+
+    @Test
+    public void testCountersAddUpAcrossThreads() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Counter counter = registry.counter("punches");
+        MetricsRegistry.Histogram histogram = registry.histogram("sizes");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    counter.increment();
+                    histogram.record(i % 100);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40000, counter.getCount());
+        assertEquals(40000, histogram.getCount());
+        assertEquals(49.5, histogram.getMean(), 1e-9);
+        assertEquals(99, histogram.getMax());
+
+        // The same name gives the same metric; another kind of metric cannot take it
+        assertSame(counter, registry.counter("punches"));
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("punches"));
+        assertThrows(IllegalArgumentException.class, () -> registry.timer("sizes"));
+
+        registry.reset();
+        assertEquals(0, counter.getCount());
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        MetricsRegistry.Histogram histogram = new MetricsRegistry().histogram("latency");
+        Random random = new Random(42);
+        long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 to about a billion, like nanosecond timings
+            values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] { 1, 50, 90, 99, 99.9, 100 }) {
+            long exact = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact + exact / 8, percentile + ": " + reported + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+
+        // Small values are exact, negative ones count as 0
+        MetricsRegistry.Histogram small = new MetricsRegistry().histogram("small");
+        small.record(-5);
+        small.record(3);
+        small.record(15);
+        assertEquals(0, small.getPercentile(1));
+        assertEquals(3, small.getPercentile(50));
+        assertEquals(15, small.getPercentile(100));
+        assertEquals(Long.MAX_VALUE, recordOne(Long.MAX_VALUE));
+        assertEquals(1L << 40, recordOne(1L << 40));
+    }
+
+    @Test
+    public void testReportAndDump() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("attendance.load").record(TimeUnit.MILLISECONDS.toNanos(42));
+        registry.histogram("attendance.dateRange.all.records").record(5000);
+        registry.counter("attendance.punches.ignored").add(3);
+
+        String path = TestUtil.getTestResourcePath(TEMP_METRICS_FILE);
+        registry.dump(path);
+        String report = new String(Files.readAllBytes(Paths.get(path)));
+
+        assertTrue(report.matches("(?s).*attendance\\.load +1 +42\\.000 .*"), report);
+        assertTrue(report.matches("(?s).*attendance\\.dateRange\\.all\\.records +1 +5000\\.0 .*"), report);
+        assertTrue(report.matches("(?s).*attendance\\.punches\\.ignored +3\\R.*"), report);
+    }
+
+    @Test
+    public void testAttendanceDaoRecordsTimings() throws Exception {
+        String path = TestUtil.createTempTestFile(TestUtil.TEST_ATTENDANCE_CSV, TEMP_ATTENDANCE_CSV);
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        long loads = registry.timer("attendance.load").getCount();
+        long lookups = registry.timer("attendance.dateRange.employee").getCount();
+        long saves = registry.timer("attendance.save").getCount();
+
+        FileAttendanceDao dao = new FileAttendanceDao(path);
+        dao.getAttendanceByDateRange(10001, LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30));
+        dao.saveAttendance();
+
+        assertEquals(loads + 1, registry.timer("attendance.load").getCount());
+        assertEquals(lookups + 1, registry.timer("attendance.dateRange.employee").getCount());
+        assertEquals(saves + 1, registry.timer("attendance.save").getCount());
+        assertTrue(registry.timer("attendance.load").getMax() > 0);
+    }
+
+    private static long recordOne(long value) {
+        MetricsRegistry.Histogram histogram = new MetricsRegistry().histogram("one");
+        histogram.record(value);
+        return histogram.getPercentile(50);
+    }
+}
@@ -0,0 +1,106 @@
+package com.motorph.payroll.view.http.test;
+
+import com.motorph.payroll.controller.AttendanceController;
+import com.motorph.payroll.controller.EmployeeController;
+import com.motorph.payroll.dao.FileAttendanceDao;
+import com.motorph.payroll.dao.FileEmployeeDao;
+import com.motorph.payroll.model.Attendance;
+import com.motorph.payroll.service.AttendanceServiceImpl;
+import com.motorph.payroll.service.EmployeeServiceImpl;
+import com.motorph.payroll.util.test.TestUtil;
+import com.motorph.payroll.view.http.ClockInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+public class ClockInServerTest {
+
+    private final String ATTENDANCE_FILE = "temp-clock-in-attendance.csv";
+    private final String EMPLOYEE_FILE = "temp-clock-in-employees.csv";
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String attendanceFilePath;
+    private ClockInServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        attendanceFilePath = TestUtil.createTempTestFile(TestUtil.TEST_ATTENDANCE_CSV, ATTENDANCE_FILE);
+        String employeeFilePath = TestUtil.createTempTestFile(TestUtil.TEST_EMPLOYEES_CSV, EMPLOYEE_FILE);
+
+        // Without a save scheduler every punch is saved before the response
+        server = new ClockInServer(
+            new AttendanceController(new AttendanceServiceImpl(new FileAttendanceDao(attendanceFilePath))),
+            new EmployeeController(new EmployeeServiceImpl(new FileEmployeeDao(employeeFilePath))),
+            0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+        TestUtil.cleanupTempTestFile(ATTENDANCE_FILE);
+        TestUtil.cleanupTempTestFile(EMPLOYEE_FILE);
+    }
+
+    @Test
+    public void testWrongMethodIsRejected() throws Exception {
+        assertEquals(405, send("GET", "/clock-in?employeeId=1").statusCode());
+        assertEquals(405, send("GET", "/clock-out?employeeId=1").statusCode());
+        assertEquals(405, send("POST", "/today?employeeId=1").statusCode());
+    }
+
+    @Test
+    public void testMissingOrInvalidEmployeeIdIsRejected() throws Exception {
+        assertEquals(400, send("POST", "/clock-in").statusCode());
+        assertEquals(400, send("POST", "/clock-in?employeeId=abc").statusCode());
+        assertEquals(400, send("GET", "/today?other=1").statusCode());
+    }
+
+    @Test
+    public void testUnknownEmployeeIsNotFound() throws Exception {
+        HttpResponse<String> response = send("POST", "/clock-in?employeeId=999");
+        assertEquals(404, response.statusCode());
+        assertTrue(response.body().startsWith("{\"error\":"));
+        assertTrue(new FileAttendanceDao(attendanceFilePath).getAttendanceByEmployeeId(999).isEmpty());
+    }
+
+    @Test
+    public void testClockOutWithoutClockInIsAConflict() throws Exception {
+        assertEquals(409, send("POST", "/clock-out?employeeId=2").statusCode());
+        assertEquals(404, send("GET", "/today?employeeId=2").statusCode());
+    }
+
+    @Test
+    public void testClockInIsReturnedByToday() throws Exception {
+        HttpResponse<String> clockIn = send("POST", "/clock-in?employeeId=1");
+        assertEquals(200, clockIn.statusCode());
+        assertEquals("application/json; charset=utf-8", clockIn.headers().firstValue("Content-Type").orElse(null));
+
+        // The punch was saved, and both endpoints describe the saved record
+        LocalDate today = LocalDate.now();
+        Attendance saved = new FileAttendanceDao(attendanceFilePath)
+            .getAttendanceByDateRange(1, today, today).get(0);
+        String expected = String.format(
+            "{\"employeeId\":1,\"date\":\"%s\",\"timeIn\":\"%s\",\"timeOut\":null,\"totalHours\":%.2f}",
+            today.format(DateTimeFormatter.ofPattern("MM/dd/yyyy")), saved.getFormattedTimeIn(), 0.0);
+        assertEquals(expected, clockIn.body());
+
+        HttpResponse<String> todayResponse = send("GET", "/today?employeeId=1");
+        assertEquals(200, todayResponse.statusCode());
+        assertEquals(expected, todayResponse.body());
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + pathAndQuery))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}